@@ -9,13 +9,16 @@ import java.util.List;
 public class BoshGui {
     private Storage storage;
     private TaskList tasks;
+    private String loadWarning;
 
     public BoshGui() {
         // Initialize storage and task list (similar to Bosh.main)
-        storage = new Storage();
         try {
+            storage = new Storage();
             List<Task> loaded = storage.load();
+            loadWarning = storage.describeSkippedLines();
             tasks = new TaskList(loaded, storage);
+            tasks.applyStartupOptions();
         } catch (Exception e) {
             tasks = new TaskList(); // fallback: no auto-save
         }
@@ -25,7 +28,8 @@ public class BoshGui {
      * Gets the welcome message for the chatbot.
      */
     public String getWelcomeMessage() {
-        return "Hello! I'm Bosh\nWhat can I do for you?";
+        String welcome = "Hello! I'm Bosh\nWhat can I do for you?";
+        return loadWarning == null ? welcome : welcome + "\n" + loadWarning;
     }
 
     /**
@@ -33,6 +37,7 @@ public class BoshGui {
      */
     public String getResponse(String input) {
         if (input.trim().equalsIgnoreCase("bye")) {
+            tasks.close(); // flush any changes still queued for saving
             return "Bye. Hope to see you again soon!";
         }
 
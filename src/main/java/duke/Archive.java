@@ -0,0 +1,148 @@
+package duke;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compressed file holding completed tasks that were moved out of the live list.
+ * It is never read at startup, only when it is searched or a task is restored.
+ *
+ * <p>The file is a sequence of blocks, one per archiving run, each holding the tasks in
+ * {@link BinaryTaskFormat} compressed with {@link Deflater}. Archiving appends a block,
+ * so its cost does not grow with the size of the archive; a torn final block is ignored.</p>
+ */
+public class Archive {
+    private static final int BLOCK_HEADER_BYTES = 8;
+
+    private final Path file;
+
+    public Archive(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Appends the tasks to the archive as one compressed block.
+     *
+     * @param tasks tasks to archive
+     * @param syncer decides whether the append is forced to disk before returning
+     * @throws IOException if the archive cannot be written
+     */
+    public void append(List<Task> tasks, FileSyncer syncer) throws IOException {
+        if (tasks.isEmpty()) {
+            return;
+        }
+
+        ByteBuffer block = ByteBuffer.wrap(encodeBlock(tasks));
+        boolean isForced = syncer.shouldForceNow();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (block.hasRemaining()) {
+                channel.write(block);
+            }
+            if (isForced) {
+                channel.force(false);
+            }
+        }
+        if (!isForced) {
+            syncer.forceLater(file);
+        }
+    }
+
+    /**
+     * Reads every archived task, oldest first.
+     *
+     * @return archived tasks (possibly empty)
+     * @throws IOException if the archive exists but cannot be read or is corrupt
+     */
+    public List<Task> load() throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        if (Files.notExists(file)) {
+            return tasks;
+        }
+
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file));
+        while (in.remaining() >= BLOCK_HEADER_BYTES) {
+            int rawLength = in.getInt();
+            int compressedLength = in.getInt();
+            if (rawLength < 0 || compressedLength < 0 || compressedLength > in.remaining()) {
+                break; // torn write at the end of the file
+            }
+
+            byte[] compressed = new byte[compressedLength];
+            in.get(compressed);
+            tasks.addAll(BinaryTaskFormat.decode(inflate(compressed, rawLength)));
+        }
+        return tasks;
+    }
+
+    /**
+     * Encodes the tasks as a single compressed block, replacing the archive's content,
+     * e.g. after tasks were restored from it.
+     *
+     * @param tasks tasks that remain archived
+     * @return file content to write in place of the archive
+     */
+    public byte[] encodeAll(List<Task> tasks) {
+        return tasks.isEmpty() ? new byte[0] : encodeBlock(tasks);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    // ========== Private Methods ==========
+
+    private static byte[] encodeBlock(List<Task> tasks) {
+        byte[] raw = BinaryTaskFormat.encode(tasks);
+
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 4 + 64);
+        byte[] buffer = new byte[64 * 1024];
+        while (!deflater.finished()) {
+            compressed.write(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+
+        return ByteBuffer.allocate(BLOCK_HEADER_BYTES + compressed.size())
+                .putInt(raw.length)
+                .putInt(compressed.size())
+                .put(compressed.toByteArray())
+                .array();
+    }
+
+    private static byte[] inflate(byte[] compressed, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLength];
+            int length = 0;
+            while (length < rawLength && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, length, rawLength - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != rawLength) {
+                throw new IOException("Archive block is truncated");
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Archive block is corrupt: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package duke;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Persists task list changes on a background thread, coalescing bursts of
+ * mutations into a single storage write (group commit).
+ * A batch is written once it is {@code maxDelayMillis} old or holds
+ * {@code maxBatchSize} mutations, whichever comes first.
+ */
+public class BackgroundSaver {
+    private final Storage storage;
+    private final Object lock;
+    private final Supplier<List<Task>> snapshot;
+    private final long maxDelayMillis;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService executor;
+
+    // Guarded by lock, which is also held by the owner while it mutates the list
+    private List<Mutation> pending = new ArrayList<>();
+    private boolean isSnapshotRequested;
+    private ScheduledFuture<?> scheduledFlush;
+
+    // Only touched by the writer thread (or by close() after it has stopped)
+    private long flushedMutations;
+    private long writes;
+
+    /**
+     * Creates a saver for the given storage.
+     *
+     * @param storage storage to write to
+     * @param lock monitor the owner holds while mutating the task list
+     * @param snapshot returns a copy of the current task list; called while holding {@code lock}
+     * @param maxDelayMillis longest a mutation may wait before being written
+     * @param maxBatchSize number of pending mutations that triggers an immediate write
+     */
+    public BackgroundSaver(Storage storage, Object lock, Supplier<List<Task>> snapshot,
+                           long maxDelayMillis, int maxBatchSize) {
+        this.storage = storage;
+        this.lock = lock;
+        this.snapshot = snapshot;
+        this.maxDelayMillis = maxDelayMillis;
+        this.maxBatchSize = maxBatchSize;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "bosh-saver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close));
+    }
+
+    /**
+     * Queues a mutation for the next batch. Must be called while holding the lock.
+     *
+     * @param mutation change that was just applied to the list
+     */
+    public void submit(Mutation mutation) {
+        assert Thread.holdsLock(lock) : "Mutations must be submitted under the task list lock";
+
+        pending.add(mutation);
+        if (pending.size() == maxBatchSize) {
+            reschedule(0);
+        } else if (scheduledFlush == null) {
+            reschedule(maxDelayMillis);
+        }
+    }
+
+    /**
+     * Requests a full rewrite with the next batch, for changes such as sorting
+     * that touch every position. Must be called while holding the lock.
+     */
+    public void submitSnapshot() {
+        assert Thread.holdsLock(lock) : "Snapshots must be requested under the task list lock";
+
+        isSnapshotRequested = true;
+        if (scheduledFlush == null) {
+            reschedule(maxDelayMillis);
+        }
+    }
+
+    /**
+     * Writes all pending mutations and stops the writer thread. Safe to call more than once.
+     */
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(maxDelayMillis + 5000, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush(); // anything submitted after the last scheduled write
+    }
+
+    /**
+     * Returns the number of mutations waiting to be written.
+     */
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Returns a one-line summary of how many mutations were written in how many writes.
+     */
+    public synchronized String getReport() {
+        return "Saved " + flushedMutations + " changes in " + writes + " writes ("
+                + getPendingCount() + " pending).";
+    }
+
+    // ========== Private Methods ==========
+
+    private void reschedule(long delayMillis) {
+        if (executor.isShutdown()) {
+            return; // close() will pick these up
+        }
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+        }
+        scheduledFlush = executor.schedule(this::flush, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Drains the pending batch together with a matching snapshot, then writes it
+     * without holding the lock so the owner is never blocked on disk I/O.
+     */
+    private synchronized void flush() {
+        List<Mutation> batch;
+        List<Task> tasks = null;
+        boolean isFullSave;
+        try {
+            synchronized (lock) {
+                scheduledFlush = null;
+                if (pending.isEmpty() && !isSnapshotRequested) {
+                    return;
+                }
+                if (isSnapshotRequested || storage.needsTaskList()) {
+                    tasks = snapshot.get(); // already reflects every pending mutation
+                }
+                isFullSave = isSnapshotRequested;
+                isSnapshotRequested = false;
+                batch = pending;
+                pending = new ArrayList<>();
+            }
+        } catch (IOException e) {
+            Ui.error("Could not save tasks: " + e.getMessage());
+            return; // the batch stays pending
+        }
+
+        try {
+            if (isFullSave) {
+                storage.save(tasks);
+            } else {
+                storage.recordAll(tasks, batch);
+            }
+            flushedMutations += batch.size();
+            writes++;
+        } catch (IOException e) {
+            Ui.error("Could not save tasks: " + e.getMessage());
+            synchronized (lock) {
+                batch.addAll(pending); // keep the order and retry with the next batch
+                pending = batch;
+                isSnapshotRequested |= isFullSave;
+                reschedule(maxDelayMillis);
+            }
+        }
+    }
+}
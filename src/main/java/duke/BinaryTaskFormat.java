@@ -0,0 +1,216 @@
+package duke;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary encoding of a task list.
+ * Layout: the magic bytes {@code BOSH}, a version byte and a task count, followed by
+ * one record per task. Each record starts with a flag byte (type in bits 0-1, done in
+ * bit 2, deadline date kind in bits 3-4), the task's id (0 if it has none; since
+ * version 2) and a length-prefixed UTF-8 description.
+ * Deadlines store their date as an epoch day or epoch second so loading never parses text.
+ * Events store their typed times followed by the parsed start and end as epoch seconds, or
+ * {@code Long.MIN_VALUE} for a time that is not a date (since version 3).
+ * Version 1 files, which have no ids, and version 2 files, whose events are parsed on load, are still read.
+ */
+public class BinaryTaskFormat {
+    public static final int MAGIC = 0x424F5348; // "BOSH"
+    public static final byte VERSION = 3;
+
+    private static final byte VERSION_WITHOUT_IDS = 1;
+    private static final byte VERSION_WITHOUT_EVENT_TIMES = 2;
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    private static final int TYPE_TODO = 0;
+    private static final int TYPE_DEADLINE = 1;
+    private static final int TYPE_EVENT = 2;
+    private static final int TYPE_MASK = 0b11;
+    private static final int DONE_BIT = 1 << 2;
+    private static final int KIND_SHIFT = 3;
+    private static final int KIND_RAW = 0;
+    private static final int KIND_DATE = 1;
+    private static final int KIND_DATE_TIME = 2;
+
+    /**
+     * Returns whether the given file content starts with the binary format's magic bytes.
+     *
+     * @param bytes file content
+     * @return true if the content should be decoded with this format
+     */
+    public static boolean isBinary(byte[] bytes) {
+        return bytes.length >= 4 && ByteBuffer.wrap(bytes).getInt(0) == MAGIC;
+    }
+
+    /**
+     * Encodes the tasks into the binary format.
+     *
+     * @param tasks tasks to encode
+     * @return encoded bytes
+     */
+    public static byte[] encode(List<Task> tasks) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(tasks.size() * 32 + 16);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(tasks.size());
+            for (Task task : tasks) {
+                writeTask(out, task);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("In-memory write failed", e); // cannot happen
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes tasks from bytes written by {@link #encode}.
+     *
+     * @param bytes file content, starting with the magic bytes
+     * @return decoded tasks
+     * @throws IOException if the content is truncated, corrupted or of an unknown version
+     */
+    public static List<Task> decode(byte[] bytes) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        try {
+            if (in.getInt() != MAGIC) {
+                throw new IOException("Not a binary task file");
+            }
+            byte version = in.get();
+            if (version < VERSION_WITHOUT_IDS || version > VERSION) {
+                throw new IOException("Unsupported binary task file version " + version);
+            }
+
+            int count = in.getInt();
+            List<Task> tasks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                tasks.add(readTask(in, version));
+            }
+            return tasks;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Corrupted binary task file", e);
+        }
+    }
+
+    // ========== Private Encoding Methods ==========
+
+    private static void writeTask(DataOutputStream out, Task task) throws IOException {
+        int flags = task.isDone ? DONE_BIT : 0;
+
+        if (task instanceof Deadline) {
+            Deadline d = (Deadline) task;
+            int kind = d.dateTime != null ? KIND_DATE_TIME : d.date != null ? KIND_DATE : KIND_RAW;
+            out.writeByte(flags | TYPE_DEADLINE | kind << KIND_SHIFT);
+            out.writeInt(task.getId());
+            writeString(out, d.description);
+            if (kind == KIND_DATE_TIME) {
+                out.writeLong(d.dateTime.toEpochSecond(ZoneOffset.UTC));
+            } else if (kind == KIND_DATE) {
+                out.writeLong(d.date.toEpochDay());
+            } else {
+                writeString(out, d.byRaw);
+            }
+        } else if (task instanceof Event) {
+            Event e = (Event) task;
+            out.writeByte(flags | TYPE_EVENT);
+            out.writeInt(task.getId());
+            writeString(out, e.description);
+            writeString(out, e.from);
+            writeString(out, e.to);
+            out.writeLong(toSeconds(e.start));
+            out.writeLong(toSeconds(e.end));
+        } else {
+            out.writeByte(flags | TYPE_TODO);
+            out.writeInt(task.getId());
+            writeString(out, task.description);
+        }
+    }
+
+    private static long toSeconds(LocalDateTime dateTime) {
+        return dateTime == null ? NO_TIME : dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    // ========== Private Decoding Methods ==========
+
+    private static Task readTask(ByteBuffer in, byte version) throws IOException {
+        int flags = in.get();
+        int id = version != VERSION_WITHOUT_IDS ? in.getInt() : 0;
+        String description = readString(in);
+
+        Task task;
+        switch (flags & TYPE_MASK) {
+            case TYPE_TODO:
+                task = new Todo(description);
+                break;
+            case TYPE_DEADLINE:
+                task = readDeadline(in, description, (flags >> KIND_SHIFT) & TYPE_MASK);
+                break;
+            case TYPE_EVENT:
+                task = readEvent(in, description, version);
+                break;
+            default:
+                throw new IOException("Unknown task type in binary task file");
+        }
+
+        if ((flags & DONE_BIT) != 0) {
+            task.markAsDone();
+        }
+        if (id < 0) {
+            throw new IOException("Negative task id in binary task file");
+        }
+        task.setId(id);
+        return task;
+    }
+
+    private static Deadline readDeadline(ByteBuffer in, String description, int kind) throws IOException {
+        switch (kind) {
+            case KIND_DATE_TIME:
+                return new Deadline(description, null, null,
+                        LocalDateTime.ofEpochSecond(in.getLong(), 0, ZoneOffset.UTC));
+            case KIND_DATE:
+                return new Deadline(description, null, LocalDate.ofEpochDay(in.getLong()), null);
+            case KIND_RAW:
+                return new Deadline(description, readString(in), null, null);
+            default:
+                throw new IOException("Unknown deadline kind in binary task file");
+        }
+    }
+
+    private static Event readEvent(ByteBuffer in, String description, byte version) {
+        String from = readString(in);
+        String to = readString(in);
+        if (version <= VERSION_WITHOUT_EVENT_TIMES) {
+            return new Event(description, from, to);
+        }
+        return new Event(description, from, to, toDateTime(in.getLong()), toDateTime(in.getLong()));
+    }
+
+    private static LocalDateTime toDateTime(long seconds) {
+        return seconds == NO_TIME ? null : LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0 || length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String s = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return StringPool.shared().canonical(s);
+    }
+}
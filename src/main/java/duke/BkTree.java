@@ -0,0 +1,131 @@
+package duke;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Distinct words arranged by edit distance, so that the words within a few typos of a query
+ * are found without comparing the query against every word.
+ *
+ * <p>Each word hangs below the first word it was compared with, under its edit distance to
+ * that word. By the triangle inequality, a word within {@code k} of the query can only sit
+ * below a word at distance {@code d} under a distance between {@code d - k} and {@code d + k},
+ * so a search skips every other branch. Words are only ever added; the owner builds a new
+ * tree to drop words no longer used.</p>
+ */
+class BkTree {
+    private Node root;
+    private int size;
+
+    /**
+     * Adds a word, unless it is already in the tree.
+     */
+    void add(String word) {
+        if (root == null) {
+            root = new Node(word);
+            size++;
+            return;
+        }
+
+        Node node = root;
+        while (true) {
+            int distance = distance(word, node.word);
+            if (distance == 0) {
+                return;
+            }
+            Node child = node.childAt(distance);
+            if (child == null) {
+                node.setChild(distance, new Node(word));
+                size++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Finds the words within the given number of edits of a query.
+     *
+     * @param query word to look for
+     * @param maxDistance most insertions, deletions and substitutions allowed
+     * @return matching words, in no particular order
+     */
+    List<String> findWithin(String query, int maxDistance) {
+        List<String> matches = new ArrayList<>();
+        if (root == null) {
+            return matches;
+        }
+
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            int distance = distance(query, node.word);
+            if (distance <= maxDistance) {
+                matches.add(node.word);
+            }
+            int last = Math.min(distance + maxDistance, node.children.length - 1);
+            for (int d = Math.max(1, distance - maxDistance); d <= last; d++) {
+                if (node.children[d] != null) {
+                    pending.push(node.children[d]);
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the Levenshtein distance between two words: the fewest single-character
+     * insertions, deletions and substitutions that turn one into the other.
+     */
+    static int distance(String a, String b) {
+        if (a.length() < b.length()) {
+            return distance(b, a);
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char c = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int substitute = previous[j - 1] + (c == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitute, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static class Node {
+        private final String word;
+        private Node[] children = new Node[0];
+
+        Node(String word) {
+            this.word = word;
+        }
+
+        Node childAt(int distance) {
+            return distance < children.length ? children[distance] : null;
+        }
+
+        void setChild(int distance, Node child) {
+            if (distance >= children.length) {
+                children = Arrays.copyOf(children, distance + 1);
+            }
+            children[distance] = child;
+        }
+    }
+}
@@ -18,11 +18,15 @@ public class Bosh {
         Ui.box("Hello! I'm Bosh", "What can I do for you?");
 
         // Level-7: load existing tasks, enable auto-save
-        Storage storage = new Storage();
         TaskList tasks;
         try {
+            Storage storage = new Storage();             // rejects unknown -D options
             List<Task> loaded = storage.load();          // [] if first run
+            if (storage.describeSkippedLines() != null) {
+                Ui.error(storage.describeSkippedLines());
+            }
             tasks = new TaskList(loaded, storage);       // auto-save enabled
+            tasks.applyStartupOptions();
         } catch (Exception e) {
             Ui.error("Starting with an empty list (load failed): " + e.getMessage());
             tasks = new TaskList(); // fallback: no auto-save
@@ -32,8 +36,13 @@ public class Bosh {
             String input = sc.nextLine().trim();
 
             if (input.equals("bye")) {
-                Ui.box("Bye. Hope to see you again soon!");
-                break;
+                String saveReport = tasks.close();
+                if (saveReport == null) {
+                    Ui.box("Bye. Hope to see you again soon!");
+                } else {
+                    Ui.box("Bye. Hope to see you again soon!", saveReport);
+                }
+                return;
             }
             try {
                 Parser.handle(input, tasks);
@@ -43,5 +52,6 @@ public class Bosh {
                 Ui.error("Uh oh, something went wrong: " + e.getClass().getSimpleName());
             }
         }
+        tasks.close(); // input ended without "bye"
     }
 }
@@ -0,0 +1,478 @@
+package duke;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+
+/**
+ * A task list stored column by column instead of as one object graph per task: a byte per
+ * task for its kind, a bit for its status, its id, up to two times as numbers, and the offset
+ * of its text in a shared UTF-8 pool. A {@code Task} is built each time one is read, and
+ * writing a task back stores its values in the columns again; the object itself is not kept.
+ *
+ * <p>Each task's text is one record in the pool: its description, then the raw due text of an
+ * undated deadline or the raw times of an event, each preceded by its length. Times are kept
+ * the way {@link BinaryTaskFormat} keeps them. A record that is replaced or removed stays in the
+ * pool as garbage until the garbage outgrows the records in use, when the pool is compacted.
+ * A copy shares the pool until it appends a record of its own.</p>
+ */
+public class ColumnarTaskList extends AbstractList<Task> implements RandomAccess, CompactTaskList {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INITIAL_POOL_CAPACITY = 1024;
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    // Kinds, one per task type and form of its times
+    private static final byte TODO = 0;
+    private static final byte DEADLINE_RAW = 1;
+    private static final byte DEADLINE_DATE = 2;       // first time holds the epoch day
+    private static final byte DEADLINE_DATE_TIME = 3;  // first time holds UTC epoch seconds
+    private static final byte EVENT = 4;               // both times hold UTC epoch seconds, or NO_TIME
+
+    private byte[] kinds;
+    private final BitSet done;
+    private int[] ids;
+    private long[] firstTimes;
+    private long[] secondTimes;
+    private int[] textStarts;
+    private byte[] pool;
+    private int poolSize;
+    private int garbage; // bytes of the pool no task refers to any more
+    private boolean isPoolShared; // with the list this was copied from, so it is copied before appending
+    private int size;
+
+    /**
+     * Creates an empty list.
+     */
+    public ColumnarTaskList() {
+        this(new byte[INITIAL_CAPACITY], new BitSet(), new int[INITIAL_CAPACITY], new long[INITIAL_CAPACITY],
+                new long[INITIAL_CAPACITY], new int[INITIAL_CAPACITY], new byte[INITIAL_POOL_CAPACITY], 0, 0, 0);
+    }
+
+    private ColumnarTaskList(byte[] kinds, BitSet done, int[] ids, long[] firstTimes, long[] secondTimes,
+                             int[] textStarts, byte[] pool, int poolSize, int garbage, int size) {
+        this.kinds = kinds;
+        this.done = done;
+        this.ids = ids;
+        this.firstTimes = firstTimes;
+        this.secondTimes = secondTimes;
+        this.textStarts = textStarts;
+        this.pool = pool;
+        this.poolSize = poolSize;
+        this.garbage = garbage;
+        this.size = size;
+    }
+
+    /**
+     * Stores the given tasks in columns, in order.
+     *
+     * @param tasks tasks to store
+     * @return a list holding the same tasks
+     */
+    public static ColumnarTaskList of(List<Task> tasks) {
+        ColumnarTaskList columns = new ColumnarTaskList();
+        columns.ensureCapacity(tasks.size());
+        for (Task task : tasks) {
+            columns.add(task);
+        }
+        return columns;
+    }
+
+    @Override
+    public ColumnarTaskList copy() {
+        int capacity = Math.max(size, 1);
+        ColumnarTaskList copy = new ColumnarTaskList(Arrays.copyOf(kinds, capacity), (BitSet) done.clone(),
+                Arrays.copyOf(ids, capacity), Arrays.copyOf(firstTimes, capacity),
+                Arrays.copyOf(secondTimes, capacity), Arrays.copyOf(textStarts, capacity),
+                pool, poolSize, garbage, size);
+        copy.isPoolShared = true;
+        return copy;
+    }
+
+    @Override
+    public ColumnarTaskList copyRange(int from, int to) {
+        int end = from + Math.max(to - from, 1);
+        ColumnarTaskList copy = new ColumnarTaskList(Arrays.copyOfRange(kinds, from, end), done.get(from, to),
+                Arrays.copyOfRange(ids, from, end), Arrays.copyOfRange(firstTimes, from, end),
+                Arrays.copyOfRange(secondTimes, from, end), Arrays.copyOfRange(textStarts, from, end),
+                pool, poolSize, poolSize, to - from);
+        for (int i = 0; i < copy.size; i++) {
+            copy.garbage -= copy.recordLength(i); // the other tasks' records are garbage to the copy
+        }
+        copy.isPoolShared = true;
+        return copy;
+    }
+
+    @Override
+    public int idAt(int index) {
+        checkIndex(index);
+        return ids[index];
+    }
+
+    @Override
+    public void setIdAt(int index, int id) {
+        checkIndex(index);
+        ids[index] = id;
+    }
+
+    /**
+     * Returns the number of bytes the text pool takes up, including garbage not yet compacted.
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    // ========== List Methods ==========
+
+    @Override
+    public Task get(int index) {
+        checkIndex(index);
+        int offset = textStarts[index];
+        String description = readText(offset);
+        Task task;
+        switch (kinds[index]) {
+            case DEADLINE_RAW:
+                task = new Deadline(description, readText(nextText(offset)), null, null);
+                break;
+            case DEADLINE_DATE:
+                task = new Deadline(description, null, LocalDate.ofEpochDay(firstTimes[index]), null);
+                break;
+            case DEADLINE_DATE_TIME:
+                task = new Deadline(description, null, null, toDateTime(firstTimes[index]));
+                break;
+            case EVENT:
+                int fromOffset = nextText(offset);
+                task = new Event(description, readText(fromOffset), readText(nextText(fromOffset)),
+                        toDateTime(firstTimes[index]), toDateTime(secondTimes[index]));
+                break;
+            default:
+                task = new Todo(description);
+        }
+        if (done.get(index)) {
+            task.markAsDone();
+        }
+        task.setId(ids[index]);
+        return task;
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        Task previous = get(index);
+        store(index, task, true);
+        compactIfWorthwhile();
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        ensureCapacity(size + 1);
+        shift(index, index + 1, size - index);
+        size++;
+        store(index, task, false);
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task removed = get(index);
+        garbage += recordLength(index);
+        shift(index + 1, index, size - index - 1);
+        size--;
+        modCount++;
+        compactIfWorthwhile();
+        return removed;
+    }
+
+    /**
+     * Removes matching tasks in a single pass instead of shifting the columns once per removal.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super Task> filter) {
+        BitSet positions = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            if (filter.test(get(i))) {
+                positions.set(i);
+            }
+        }
+        return removePositions(positions);
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        BitSet positions = new BitSet(size);
+        positions.set(fromIndex, toIndex);
+        removePositions(positions);
+    }
+
+    @Override
+    public boolean removePositions(BitSet positions) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (positions.get(i)) {
+                garbage += recordLength(i);
+            } else {
+                moveOne(i, kept++);
+            }
+        }
+        if (kept == size) {
+            return false;
+        }
+
+        done.clear(kept, size);
+        size = kept;
+        modCount++;
+        compactIfWorthwhile();
+        return true;
+    }
+
+    @Override
+    public void insertAll(int[] positions, List<Task> inserted) {
+        int newSize = size + positions.length;
+        ensureCapacity(newSize);
+
+        int next = positions.length - 1;
+        int from = size - 1;
+        size = newSize;
+        for (int to = newSize - 1; to >= 0 && next >= 0; to--) {
+            if (positions[next] == to) {
+                store(to, inserted.get(next--), false);
+            } else {
+                moveOne(from--, to);
+            }
+        }
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // ========== Private Column Methods ==========
+
+    /**
+     * Writes a task's values into the columns at the given position. When asked, a text
+     * record equal to the one already there is kept instead of appending a new one,
+     * which is the common case of a task whose status changed.
+     */
+    private void store(int index, Task task, boolean isReplacing) {
+        byte[] record = encodeRecord(task);
+        if (!isReplacing || !isSameRecord(textStarts[index], record)) {
+            if (isReplacing) {
+                garbage += recordLength(index);
+            }
+            textStarts[index] = append(record);
+        }
+
+        done.set(index, task.isDone);
+        ids[index] = task.getId();
+        firstTimes[index] = NO_TIME;
+        secondTimes[index] = NO_TIME;
+        if (task instanceof Deadline) {
+            Deadline deadline = (Deadline) task;
+            if (deadline.dateTime != null) {
+                kinds[index] = DEADLINE_DATE_TIME;
+                firstTimes[index] = deadline.dateTime.toEpochSecond(ZoneOffset.UTC);
+            } else if (deadline.date != null) {
+                kinds[index] = DEADLINE_DATE;
+                firstTimes[index] = deadline.date.toEpochDay();
+            } else {
+                kinds[index] = DEADLINE_RAW;
+            }
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            kinds[index] = EVENT;
+            firstTimes[index] = toSeconds(event.start);
+            secondTimes[index] = toSeconds(event.end);
+        } else {
+            kinds[index] = TODO;
+        }
+    }
+
+    private void moveOne(int from, int to) {
+        if (from == to) {
+            return;
+        }
+        kinds[to] = kinds[from];
+        done.set(to, done.get(from));
+        ids[to] = ids[from];
+        firstTimes[to] = firstTimes[from];
+        secondTimes[to] = secondTimes[from];
+        textStarts[to] = textStarts[from];
+    }
+
+    private void shift(int from, int to, int length) {
+        System.arraycopy(kinds, from, kinds, to, length);
+        System.arraycopy(ids, from, ids, to, length);
+        System.arraycopy(firstTimes, from, firstTimes, to, length);
+        System.arraycopy(secondTimes, from, secondTimes, to, length);
+        System.arraycopy(textStarts, from, textStarts, to, length);
+
+        BitSet moved = done.get(from, from + length);
+        done.clear(Math.min(from, to), Math.max(from, to) + length);
+        for (int i = moved.nextSetBit(0); i >= 0; i = moved.nextSetBit(i + 1)) {
+            done.set(to + i);
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= kinds.length) {
+            return;
+        }
+        int grown = Math.max(capacity, kinds.length + (kinds.length >> 1));
+        kinds = Arrays.copyOf(kinds, grown);
+        ids = Arrays.copyOf(ids, grown);
+        firstTimes = Arrays.copyOf(firstTimes, grown);
+        secondTimes = Arrays.copyOf(secondTimes, grown);
+        textStarts = Arrays.copyOf(textStarts, grown);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private static long toSeconds(LocalDateTime dateTime) {
+        return dateTime == null ? NO_TIME : dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime toDateTime(long seconds) {
+        return seconds == NO_TIME ? null : LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
+    }
+
+    // ========== Private Pool Methods ==========
+
+    /**
+     * Encodes the texts of a task as a pool record: each one's UTF-8 length as a varint, then its bytes.
+     */
+    private static byte[] encodeRecord(Task task) {
+        byte[][] texts;
+        if (task instanceof Deadline) {
+            Deadline deadline = (Deadline) task;
+            texts = deadline.dateTime == null && deadline.date == null
+                    ? new byte[][] {utf8(task.description), utf8(deadline.byRaw)}
+                    : new byte[][] {utf8(task.description)};
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            texts = new byte[][] {utf8(task.description), utf8(event.from), utf8(event.to)};
+        } else {
+            texts = new byte[][] {utf8(task.description)};
+        }
+
+        int length = 0;
+        for (byte[] text : texts) {
+            length += varintLength(text.length) + text.length;
+        }
+        byte[] record = new byte[length];
+        int at = 0;
+        for (byte[] text : texts) {
+            for (int value = text.length; ; value >>>= 7) {
+                if (value < 0x80) {
+                    record[at++] = (byte) value;
+                    break;
+                }
+                record[at++] = (byte) (value & 0x7F | 0x80);
+            }
+            System.arraycopy(text, 0, record, at, text.length);
+            at += text.length;
+        }
+        return record;
+    }
+
+    private static byte[] utf8(String s) {
+        return s == null ? new byte[0] : s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int varintLength(int value) {
+        int length = 1;
+        while (value >= 0x80) {
+            value >>>= 7;
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * Reads the varint length of the text at the given pool offset.
+     */
+    private int textLength(int offset) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = pool[offset++];
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private String readText(int offset) {
+        int length = textLength(offset);
+        return new String(pool, offset + varintLength(length), length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the offset of the text that follows the one at the given offset.
+     */
+    private int nextText(int offset) {
+        int length = textLength(offset);
+        return offset + varintLength(length) + length;
+    }
+
+    private int recordLength(int index) {
+        int texts = kinds[index] == EVENT ? 3 : kinds[index] == DEADLINE_RAW ? 2 : 1;
+        int end = textStarts[index];
+        for (int i = 0; i < texts; i++) {
+            end = nextText(end);
+        }
+        return end - textStarts[index];
+    }
+
+    private boolean isSameRecord(int offset, byte[] record) {
+        return offset + record.length <= poolSize
+                && Arrays.equals(pool, offset, offset + record.length, record, 0, record.length);
+    }
+
+    private int append(byte[] record) {
+        if (poolSize + record.length > pool.length || isPoolShared) {
+            pool = Arrays.copyOf(pool, Math.max(poolSize + record.length, pool.length * 2));
+            isPoolShared = false;
+        }
+        System.arraycopy(record, 0, pool, poolSize, record.length);
+        int offset = poolSize;
+        poolSize += record.length;
+        return offset;
+    }
+
+    /**
+     * Copies the records still in use into a new pool once garbage takes up more than half of it.
+     */
+    private void compactIfWorthwhile() {
+        if (garbage <= INITIAL_POOL_CAPACITY || garbage * 2 <= poolSize) {
+            return;
+        }
+
+        byte[] compacted = new byte[Math.max(INITIAL_POOL_CAPACITY, (poolSize - garbage) * 2)];
+        int used = 0;
+        for (int i = 0; i < size; i++) {
+            int length = recordLength(i);
+            System.arraycopy(pool, textStarts[i], compacted, used, length);
+            textStarts[i] = used;
+            used += length;
+        }
+        pool = compacted;
+        poolSize = used;
+        garbage = 0;
+        isPoolShared = false;
+    }
+}
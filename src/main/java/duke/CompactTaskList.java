@@ -0,0 +1,56 @@
+package duke;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A task list that keeps its tasks in a compact form and builds a {@code Task} only when one
+ * is read. {@code TaskList} adopts such a list as it is and uses these bulk operations, which
+ * work on the compact form, instead of reading and writing back every task.
+ */
+public interface CompactTaskList extends List<Task> {
+    /**
+     * Returns a structurally independent copy, without building any tasks.
+     */
+    List<Task> copy();
+
+    /**
+     * Returns a structurally independent copy of part of the list, without building any tasks.
+     *
+     * @param from first position to copy
+     * @param to position after the last one to copy
+     */
+    List<Task> copyRange(int from, int to);
+
+    /**
+     * Returns the id of the task at the given position, without building the task.
+     *
+     * @param index position in the list
+     * @return the task's id, or 0 if it has none
+     */
+    int idAt(int index);
+
+    /**
+     * Gives the task at the given position a new id, without building the task.
+     *
+     * @param index position in the list
+     * @param id id to give it
+     */
+    void setIdAt(int index, int id);
+
+    /**
+     * Removes the tasks at the given positions in a single pass.
+     *
+     * @param positions 0-based positions to remove
+     * @return whether anything was removed
+     */
+    boolean removePositions(BitSet positions);
+
+    /**
+     * Inserts tasks at the given positions in a single pass.
+     *
+     * @param positions 0-based positions the tasks occupy afterwards, ascending
+     * @param inserted tasks to insert, in the same order
+     */
+    void insertAll(int[] positions, List<Task> inserted);
+}
@@ -0,0 +1,80 @@
+package duke;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Advisory lock shared by every Bosh process using the same data file, so one process
+ * never reads the file halfway through another's write. The lock is taken on a separate
+ * file because the data file itself is replaced by renaming on every save.
+ * Within one process the lock is reentrant and also excludes other threads.
+ */
+public class DataFileLock {
+    private final Path lockFile;
+    private final ReentrantLock threadLock = new ReentrantLock();
+
+    // Guarded by threadLock
+    private FileChannel channel;
+    private FileLock fileLock;
+
+    public DataFileLock(Path lockFile) {
+        this.lockFile = lockFile;
+    }
+
+    /**
+     * Waits until no other thread or process holds the lock, then takes it.
+     *
+     * @return hold to close once the file has been read or written
+     * @throws IOException if the lock file cannot be opened or locked
+     */
+    public Hold acquire() throws IOException {
+        threadLock.lock();
+        if (threadLock.getHoldCount() > 1) {
+            return this::release;
+        }
+
+        try {
+            channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            fileLock = channel.lock();
+        } catch (IOException | RuntimeException e) {
+            closeChannel();
+            threadLock.unlock();
+            throw e;
+        }
+        return this::release;
+    }
+
+    private void release() throws IOException {
+        try {
+            if (threadLock.getHoldCount() == 1) {
+                try {
+                    fileLock.release();
+                } finally {
+                    closeChannel();
+                }
+            }
+        } finally {
+            threadLock.unlock();
+        }
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+        channel = null;
+        fileLock = null;
+    }
+
+    /**
+     * A held lock, released by {@link #close()}.
+     */
+    public interface Hold extends AutoCloseable {
+        @Override
+        void close() throws IOException;
+    }
+}
@@ -0,0 +1,90 @@
+package duke;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the data file's directory and runs a callback on a background thread whenever
+ * the data file is replaced or modified. Events arriving in quick succession, such as the
+ * create and modify of one rename, are collapsed into a single call.
+ */
+public class DataFileWatcher {
+    private static final long SETTLE_MILLIS = 50;
+
+    private final Path file;
+    private final WatchService watchService;
+    private final Runnable onChange;
+    private final Thread thread;
+
+    /**
+     * Starts watching.
+     *
+     * @param file data file to watch
+     * @param onChange called on the watcher thread after the file changed
+     * @throws IOException if the directory cannot be watched
+     */
+    public DataFileWatcher(Path file, Runnable onChange) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.onChange = onChange;
+        this.watchService = this.file.getFileSystem().newWatchService();
+        this.file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+
+        thread = new Thread(this::run, "bosh-watch");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops watching. A callback already running is allowed to finish.
+     */
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            // the watcher thread exits either way
+        }
+    }
+
+    // ========== Private Methods ==========
+
+    private void run() {
+        try {
+            while (true) {
+                boolean isChanged = drain(watchService.take());
+                // let the rest of a burst arrive before reading the file
+                WatchKey next;
+                while ((next = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    isChanged |= drain(next);
+                }
+                if (isChanged) {
+                    onChange.run();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    /**
+     * Consumes a key's events and re-arms it.
+     *
+     * @return whether any event concerned the data file
+     */
+    private boolean drain(WatchKey key) {
+        boolean isChanged = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context())) {
+                isChanged = true;
+            }
+        }
+        key.reset();
+        return isChanged;
+    }
+}
@@ -0,0 +1,133 @@
+package duke;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * The pending deadlines that have a date, ordered by when they are due, so date queries
+ * read just the deadlines in range instead of scanning the list.
+ *
+ * <p>Entries are keyed by {@link SortKey#dueKey(Task)} and an id that grows with list position
+ * (see {@link LivePositions}), which breaks ties in list order. Completed deadlines and tasks
+ * without a date are not indexed, but still take up a position. Changes that reorder the list,
+ * such as a sort, are not tracked: the owner discards the index and builds a new one when next needed.</p>
+ */
+public class DateIndex {
+    private final LivePositions live = new LivePositions();
+    private final TreeSet<Entry> entries = new TreeSet<>((e1, e2) -> {
+        int byDue = Long.compare(e1.due, e2.due);
+        return byDue != 0 ? byDue : Integer.compare(e1.id, e2.id);
+    });
+    private Entry[] byId = new Entry[16];
+
+    /**
+     * Builds an index over the tasks, in list order.
+     *
+     * @param tasks tasks to index
+     * @return index of the tasks
+     */
+    public static DateIndex build(List<Task> tasks) {
+        DateIndex index = new DateIndex();
+        for (Task task : tasks) {
+            index.append(task);
+        }
+        return index;
+    }
+
+    /**
+     * Indexes a task added at the end of the list.
+     *
+     * @param task the new task
+     */
+    public void append(Task task) {
+        int id = live.append();
+        if (id >= byId.length) {
+            byId = Arrays.copyOf(byId, byId.length * 2);
+        }
+        add(id, task);
+    }
+
+    /**
+     * Forgets the task at the given position; later tasks move up by one.
+     *
+     * @param position 0-based position of the removed task
+     */
+    public void remove(int position) {
+        int id = live.idAt(position);
+        live.remove(position);
+        removeEntry(id);
+    }
+
+    /**
+     * Re-files a task whose date or status changed.
+     *
+     * @param position 0-based position of the task
+     * @param task the task as it is now
+     */
+    public void update(int position, Task task) {
+        int id = live.idAt(position);
+        removeEntry(id);
+        add(id, task);
+    }
+
+    /**
+     * Returns whether enough tasks were deleted that rebuilding would make queries noticeably cheaper.
+     */
+    public boolean isWorthRebuilding() {
+        return live.isWorthRebuilding();
+    }
+
+    /**
+     * Finds the pending deadlines whose due keys lie in {@code [from, to)}, earliest first.
+     *
+     * @param from lowest due key to include
+     * @param to lowest due key to leave out
+     * @param limit most positions to return
+     * @return 0-based positions of the matching tasks
+     */
+    public int[] positionsBetween(long from, long to, int limit) {
+        if (from >= to) {
+            return new int[0];
+        }
+
+        int[] positions = new int[Math.min(limit, entries.size())];
+        int count = 0;
+        for (Entry entry : entries.subSet(new Entry(from, -1), new Entry(to, -1))) {
+            if (count == positions.length) {
+                break;
+            }
+            positions[count++] = live.positionOf(entry.id);
+        }
+        return Arrays.copyOf(positions, count);
+    }
+
+    // ========== Private Methods ==========
+
+    private void add(int id, Task task) {
+        long due = SortKey.dueKey(task);
+        if (due == Long.MAX_VALUE || task.isDone) {
+            return;
+        }
+        Entry entry = new Entry(due, id);
+        byId[id] = entry;
+        entries.add(entry);
+    }
+
+    private void removeEntry(int id) {
+        if (byId[id] != null) {
+            entries.remove(byId[id]);
+            byId[id] = null;
+        }
+    }
+
+    private static class Entry {
+        private final long due;
+        private final int id;
+
+        Entry(long due, int id) {
+            this.due = due;
+            this.id = id;
+        }
+    }
+}
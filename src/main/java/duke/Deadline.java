@@ -23,6 +23,22 @@ public class Deadline extends Task {
         parseIntoFields(this.byRaw);
     }
 
+    /**
+     * Creates a deadline from values that were already parsed, e.g. by a binary loader,
+     * so no date parsing happens. Exactly one of the three values is expected to be set.
+     */
+    Deadline(String description, String byRaw, LocalDate date, LocalDateTime dateTime) {
+        super(description, TaskType.DEADLINE);
+        this.byRaw = byRaw == null ? "" : byRaw;
+        this.date = date;
+        this.dateTime = dateTime;
+    }
+
+    @Override
+    protected Task copy() {
+        return new Deadline(description, byRaw, date, dateTime);
+    }
+
     private void parseIntoFields(String s) {
         if (s.isEmpty()) return;
         // Try datetime first (yyyy-MM-dd HHmm)
@@ -47,16 +63,16 @@ public class Deadline extends Task {
     }
 
     @Override
-    public String toString() {
-        String pretty;
+    public StringBuilder appendTo(StringBuilder sb) {
+        super.appendTo(sb).append(" (by: ");
         if (dateTime != null) {
-            pretty = dateTime.format(OUT_DATE_TIME); // "Oct 15 2019 6:00PM"
+            OUT_DATE_TIME.formatTo(dateTime, sb); // "Oct 15 2019 6:00PM"
         } else if (date != null) {
-            pretty = date.format(OUT_DATE); // "Oct 15 2019"
+            OUT_DATE.formatTo(date, sb); // "Oct 15 2019"
         } else {
-            pretty = byRaw; // not a recognized date format -> show original (fallback)
+            sb.append(byRaw); // not a recognized date format -> show original (fallback)
         }
-        return super.toString() + " (by: " + pretty + ")";
+        return sb.append(')');
     }
 }
 
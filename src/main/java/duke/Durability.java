@@ -0,0 +1,43 @@
+package duke;
+
+/**
+ * How hard {@link Storage} works to get each write onto the disk before returning.
+ * Every mode writes snapshots to a temporary file and renames it over the data file,
+ * so a crash of the program itself never leaves a half-written snapshot behind;
+ * the modes differ in what survives a power loss or operating system crash.
+ */
+public enum Durability {
+    /** Every snapshot and journal append is forced to disk before the command completes. */
+    FSYNC_EVERY_WRITE("fsync-every-write"),
+    /** Writes are forced by a background thread at most one interval after they happen. */
+    PERIODIC("periodic"),
+    /** Nothing is forced; the operating system writes data back whenever it likes. */
+    NONE("none");
+
+    private final String name;
+
+    Durability(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Looks up a mode by its name, e.g. {@code fsync-every-write}.
+     *
+     * @param name mode name, case-insensitive
+     * @return matching mode
+     * @throws IllegalArgumentException if no mode has that name
+     */
+    public static Durability fromName(String name) {
+        for (Durability durability : values()) {
+            if (durability.name.equalsIgnoreCase(name.trim())) {
+                return durability;
+            }
+        }
+        throw new IllegalArgumentException("Unknown durability mode: " + name
+                + " (expected fsync-every-write, periodic or none)");
+    }
+}
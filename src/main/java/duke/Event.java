@@ -1,17 +1,121 @@
 package duke;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
 public class Event extends Task {
+    // Keep original input; it is what gets saved, and what is shown if it isn't a valid date
     protected String from;
     protected String to;
+    protected LocalDateTime start; // if from is yyyy-MM-dd [HHmm]
+    protected LocalDateTime end;   // exclusive; if to is yyyy-MM-dd [HHmm], or HHmm on the start day
+
+    private static final DateTimeFormatter IN_DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter IN_DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
+    private static final DateTimeFormatter IN_TIME = DateTimeFormatter.ofPattern("HHmm");
+    private static final DateTimeFormatter OUT_DATE = DateTimeFormatter.ofPattern("MMM d yyyy", Locale.ENGLISH);
+    private static final DateTimeFormatter OUT_DATE_TIME = DateTimeFormatter.ofPattern("MMM d yyyy h:mma", Locale.ENGLISH);
+    private static final DateTimeFormatter OUT_TIME = DateTimeFormatter.ofPattern("h:mma", Locale.ENGLISH);
+    // Lengths of the accepted forms, checked first so plain text like "2pm" is not parsed at all
+    private static final int DATE_TIME_LENGTH = 15;
+    private static final int DATE_LENGTH = 10;
+    private static final int TIME_LENGTH = 4;
 
     public Event(String description, String from, String to) {
         super(description, TaskType.EVENT);
         this.from = from;
         this.to = to;
+        parseIntoFields();
+    }
+
+    /**
+     * Creates an event from times that were already parsed, so no parsing happens.
+     */
+    Event(String description, String from, String to, LocalDateTime start, LocalDateTime end) {
+        super(description, TaskType.EVENT);
+        this.from = from;
+        this.to = to;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    protected Task copy() {
+        return new Event(description, from, to, start, end);
+    }
+
+    /**
+     * Returns whether both times were understood and the event ends after it starts,
+     * so it takes up a definite stretch of time.
+     */
+    public boolean isScheduled() {
+        return start != null && end != null && end.isAfter(start);
+    }
+
+    private void parseIntoFields() {
+        start = parseDateTime(from.trim(), false);
+        end = parseDateTime(to.trim(), true);
+        if (end == null && start != null && to.trim().length() == TIME_LENGTH) {
+            // "to" may be just a time on the day the event starts
+            try {
+                end = start.toLocalDate().atTime(LocalTime.parse(to.trim(), IN_TIME));
+            } catch (DateTimeParseException ignore) {
+                // leave it unparsed
+            }
+        }
+    }
+
+    /**
+     * Parses {@code yyyy-MM-dd HHmm} or {@code yyyy-MM-dd}. A bare date stands for the start
+     * of that day, or, as an end, for the end of it.
+     */
+    private static LocalDateTime parseDateTime(String s, boolean isEnd) {
+        try {
+            if (s.length() == DATE_TIME_LENGTH) {
+                return LocalDateTime.parse(s, IN_DATE_TIME);
+            }
+            if (s.length() == DATE_LENGTH) {
+                LocalDate date = LocalDate.parse(s, IN_DATE);
+                return isEnd ? date.plusDays(1).atStartOfDay() : date.atStartOfDay();
+            }
+        } catch (DateTimeParseException ignore) {
+            // not a date; the raw text is kept
+        }
+        return null;
+    }
+
+    /**
+     * Appends a time of a scheduled event in the form it was typed, the way deadlines are shown.
+     * The parsed times are formatted, so nothing is parsed again.
+     */
+    private static void appendTime(StringBuilder sb, String typed, LocalDateTime parsed, boolean isEnd) {
+        switch (typed.trim().length()) {
+            case DATE_TIME_LENGTH:
+                OUT_DATE_TIME.formatTo(parsed, sb);
+                break;
+            case DATE_LENGTH:
+                // a date-only end was stored as the start of the next day
+                OUT_DATE.formatTo(isEnd ? parsed.toLocalDate().minusDays(1) : parsed.toLocalDate(), sb);
+                break;
+            default:
+                OUT_TIME.formatTo(parsed, sb);
+        }
     }
 
     @Override
-    public String toString() {
-        return super.toString() + " (from: " + from + " to: " + to + ")";
+    public StringBuilder appendTo(StringBuilder sb) {
+        super.appendTo(sb).append(" (from: ");
+        if (isScheduled()) {
+            appendTime(sb, from, start, false);
+            sb.append(" to: ");
+            appendTime(sb, to, end, true);
+        } else {
+            sb.append(from).append(" to: ").append(to);
+        }
+        return sb.append(')');
     }
 }
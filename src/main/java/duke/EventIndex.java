@@ -0,0 +1,259 @@
+package duke;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Interval tree over the scheduled events of the task list, so time queries read just the
+ * events they return instead of scanning the list.
+ *
+ * <p>The tree is a treap ordered by start time and an id that grows with list position
+ * (see {@link LivePositions}), in which every node also records the latest end in its subtree.
+ * A search skips any subtree that ends before the queried time. Tasks that are not scheduled
+ * events are not indexed, but still take up a position. Changes that reorder the list, such
+ * as a sort, are not tracked: the owner discards the index and builds a new one when next needed.</p>
+ */
+public class EventIndex {
+    private static final long NOT_INDEXED = Long.MIN_VALUE;
+
+    private final LivePositions live = new LivePositions();
+    private Node root;
+    private int count;
+    private long[] startById = new long[16];
+
+    /**
+     * Builds an index over the tasks, in list order.
+     *
+     * @param tasks tasks to index
+     * @return index of the tasks
+     */
+    public static EventIndex build(List<Task> tasks) {
+        EventIndex index = new EventIndex();
+        for (Task task : tasks) {
+            index.append(task);
+        }
+        return index;
+    }
+
+    /**
+     * Returns the time used as an interval bound: seconds since the epoch, read as UTC.
+     */
+    static long secondsOf(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Indexes a task added at the end of the list.
+     *
+     * @param task the new task
+     */
+    public void append(Task task) {
+        int id = live.append();
+        if (id >= startById.length) {
+            startById = Arrays.copyOf(startById, startById.length * 2);
+        }
+        startById[id] = NOT_INDEXED;
+
+        if (task instanceof Event && ((Event) task).isScheduled()) {
+            Event event = (Event) task;
+            long start = secondsOf(event.start);
+            startById[id] = start;
+            root = insert(root, new Node(start, secondsOf(event.end), id));
+            count++;
+        }
+    }
+
+    /**
+     * Forgets the task at the given position; later tasks move up by one.
+     *
+     * @param position 0-based position of the removed task
+     */
+    public void remove(int position) {
+        int id = live.idAt(position);
+        live.remove(position);
+        if (startById[id] != NOT_INDEXED) {
+            root = delete(root, startById[id], id);
+            startById[id] = NOT_INDEXED;
+            count--;
+        }
+    }
+
+    /**
+     * Returns whether enough tasks were deleted that rebuilding would make queries noticeably cheaper.
+     */
+    public boolean isWorthRebuilding() {
+        return live.isWorthRebuilding();
+    }
+
+    /**
+     * Finds the events that overlap {@code [from, to)}, in order of their start.
+     *
+     * @param from start of the queried time, in {@link #secondsOf} units
+     * @param to end of the queried time, exclusive
+     * @param limit most positions to return
+     * @return 0-based positions of the overlapping events
+     */
+    public int[] positionsOverlapping(long from, long to, int limit) {
+        List<Node> found = new ArrayList<>();
+        collectOverlapping(root, from, to, limit, found);
+        int[] positions = new int[found.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = live.positionOf(found.get(i).id);
+        }
+        return positions;
+    }
+
+    /**
+     * Finds every pair of events that overlap each other. Walks the events in order of their
+     * start and pairs each one with the events that start before it ends, so the cost is the
+     * number of events plus the number of pairs.
+     *
+     * @param limit most pairs to return
+     * @return pairs of 0-based positions, the earlier-starting event first
+     */
+    public List<int[]> overlappingPairs(int limit) {
+        Node[] byStart = new Node[count];
+        flatten(root, byStart, 0);
+
+        List<int[]> pairs = new ArrayList<>();
+        for (int i = 0; i < byStart.length && pairs.size() < limit; i++) {
+            for (int j = i + 1; j < byStart.length && byStart[j].start < byStart[i].end && pairs.size() < limit; j++) {
+                pairs.add(new int[] {live.positionOf(byStart[i].id), live.positionOf(byStart[j].id)});
+            }
+        }
+        return pairs;
+    }
+
+    // ========== Private Tree Methods ==========
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.id, node) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node delete(Node node, long start, int id) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, id, node);
+        if (cmp < 0) {
+            node.left = delete(node.left, start, id);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, start, id);
+        } else if (node.left == null) {
+            return node.right;
+        } else if (node.right == null) {
+            return node.left;
+        } else if (node.left.priority > node.right.priority) {
+            node = rotateRight(node);
+            node.right = delete(node.right, start, id);
+        } else {
+            node = rotateLeft(node);
+            node.left = delete(node.left, start, id);
+        }
+        node.update();
+        return node;
+    }
+
+    /**
+     * Collects overlapping nodes in order, skipping subtrees that end too early or start too late.
+     */
+    private static void collectOverlapping(Node node, long from, long to, int limit, List<Node> found) {
+        if (node == null || node.maxEnd <= from || found.size() >= limit) {
+            return;
+        }
+        collectOverlapping(node.left, from, to, limit, found);
+        if (node.start >= to || found.size() >= limit) {
+            return; // this node and everything to its right start too late
+        }
+        if (node.end > from) {
+            found.add(node);
+        }
+        collectOverlapping(node.right, from, to, limit, found);
+    }
+
+    private static int flatten(Node node, Node[] out, int next) {
+        if (node == null) {
+            return next;
+        }
+        next = flatten(node.left, out, next);
+        out[next++] = node;
+        return flatten(node.right, out, next);
+    }
+
+    private static int compare(long start, int id, Node node) {
+        int byStart = Long.compare(start, node.start);
+        return byStart != 0 ? byStart : Integer.compare(id, node.id);
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.update();
+        left.update();
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.update();
+        right.update();
+        return right;
+    }
+
+    private static class Node {
+        private final long start;
+        private final long end;
+        private final int id;
+        private final int priority;
+        private long maxEnd;
+        private Node left;
+        private Node right;
+
+        Node(long start, long end, int id) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.priority = mix(id);
+            this.maxEnd = end;
+        }
+
+        void update() {
+            maxEnd = end;
+            if (left != null) {
+                maxEnd = Math.max(maxEnd, left.maxEnd);
+            }
+            if (right != null) {
+                maxEnd = Math.max(maxEnd, right.maxEnd);
+            }
+        }
+
+        /**
+         * Spreads ids into priorities that look random but are the same on every build.
+         */
+        private static int mix(int id) {
+            int h = id * 0x9E3779B9;
+            return h ^ (h >>> 15);
+        }
+    }
+}
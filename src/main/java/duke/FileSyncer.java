@@ -0,0 +1,142 @@
+package duke;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides when written files are forced to disk according to a {@link Durability} mode.
+ * In periodic mode, writes that are not forced right away are forced by a background
+ * thread at most one interval later.
+ */
+public class FileSyncer {
+    private final Durability durability;
+    private final long intervalMillis;
+
+    // Guarded by this
+    private final Set<Path> dirty = new LinkedHashSet<>();
+    private long lastForceMillis;
+    private boolean isFlushScheduled;
+    private ScheduledExecutorService executor;
+
+    /**
+     * Creates a syncer for the given mode.
+     *
+     * @param durability how eagerly to force writes
+     * @param intervalMillis longest a write may stay unforced in periodic mode
+     */
+    public FileSyncer(Durability durability, long intervalMillis) {
+        this.durability = durability;
+        this.intervalMillis = intervalMillis;
+    }
+
+    public Durability getDurability() {
+        return durability;
+    }
+
+    /**
+     * Returns whether the write about to complete should be forced before returning.
+     * In periodic mode this is true at most once per interval.
+     */
+    public synchronized boolean shouldForceNow() {
+        switch (durability) {
+            case FSYNC_EVERY_WRITE:
+                return true;
+            case PERIODIC:
+                long now = System.currentTimeMillis();
+                if (now - lastForceMillis >= intervalMillis) {
+                    lastForceMillis = now;
+                    return true;
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Notes a write that was not forced. In periodic mode it is forced within one interval;
+     * in the other modes this does nothing.
+     *
+     * @param file file that was written
+     */
+    public synchronized void forceLater(Path file) {
+        if (durability != Durability.PERIODIC) {
+            return;
+        }
+
+        dirty.add(file);
+        if (!isFlushScheduled) {
+            isFlushScheduled = true;
+            getExecutor().schedule(this::flush, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Forces every file with unforced writes. Called on exit and by the background thread.
+     */
+    public void flush() {
+        Set<Path> files;
+        synchronized (this) {
+            files = new LinkedHashSet<>(dirty);
+            dirty.clear();
+            isFlushScheduled = false;
+            lastForceMillis = System.currentTimeMillis();
+        }
+
+        for (Path file : files) {
+            try {
+                force(file);
+            } catch (IOException e) {
+                Ui.error("Could not flush " + file.getFileName() + " to disk: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Forces a file's content to disk. A file that no longer exists is ignored.
+     *
+     * @param file file to force
+     * @throws IOException if the file cannot be opened or forced
+     */
+    public static void force(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        } catch (NoSuchFileException e) {
+            // replaced or compacted away since it was written; its successor is forced on its own
+        }
+    }
+
+    /**
+     * Forces a directory entry change such as a rename. Not every platform allows
+     * opening a directory, so failure only means the rename is as durable as the platform makes it.
+     *
+     * @param dir directory to force
+     */
+    public static void forceDirectory(Path dir) {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // e.g. Windows cannot open directories as channels
+        }
+    }
+
+    private ScheduledExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "bosh-fsync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            Runtime.getRuntime().addShutdownHook(new Thread(this::flush));
+        }
+        return executor;
+    }
+}
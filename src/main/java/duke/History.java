@@ -0,0 +1,161 @@
+package duke;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Bounded undo and redo stacks for the task list. Each entry is the step that reverses one
+ * command and holds only what that command touched: the positions and tasks it removed,
+ * replaced or added, or, for a sort, the permutation that puts the list back. Applying a step
+ * yields the step that reverses it again, which goes on the other stack.
+ */
+public class History {
+    public static final int DEFAULT_LIMIT = 100;
+
+    private final int limit;
+    private final Deque<Step> undoSteps = new ArrayDeque<>();
+    private final Deque<Step> redoSteps = new ArrayDeque<>();
+
+    /**
+     * Creates an empty history.
+     *
+     * @param limit most commands that can be undone; older ones are forgotten
+     */
+    public History(int limit) {
+        this.limit = Math.max(1, limit);
+    }
+
+    /**
+     * Records how to reverse a new command. Anything that could be redone is dropped,
+     * since it no longer applies to the changed list.
+     *
+     * @param inverse step that undoes the command
+     */
+    public void recordCommand(Step inverse) {
+        redoSteps.clear();
+        push(undoSteps, inverse);
+    }
+
+    /**
+     * Forgets everything, e.g. after a change that cannot be undone moved tasks around.
+     */
+    public void clear() {
+        undoSteps.clear();
+        redoSteps.clear();
+    }
+
+    /**
+     * Takes the step that undoes the latest command, or null if there is none.
+     */
+    public Step popUndo() {
+        return undoSteps.pollFirst();
+    }
+
+    /**
+     * Takes the step that redoes the latest undone command, or null if there is none.
+     */
+    public Step popRedo() {
+        return redoSteps.pollFirst();
+    }
+
+    /**
+     * Records the step that redoes a command that was just undone.
+     */
+    public void pushRedo(Step step) {
+        push(redoSteps, step);
+    }
+
+    /**
+     * Records the step that undoes a command that was just redone, keeping the other redo steps.
+     */
+    public void pushUndo(Step step) {
+        push(undoSteps, step);
+    }
+
+    private void push(Deque<Step> steps, Step step) {
+        steps.addFirst(step);
+        if (steps.size() > limit) {
+            steps.removeLast();
+        }
+    }
+
+    /**
+     * One reversible change to the task list.
+     */
+    public static class Step {
+        /**
+         * What the step does to the list.
+         */
+        public enum Kind {
+            INSERT, REMOVE, REPLACE, PERMUTE
+        }
+
+        private final Kind kind;
+        private final String label;
+        private final int[] positions;
+        private final List<Task> tasks;
+
+        private Step(Kind kind, String label, int[] positions, List<Task> tasks) {
+            this.kind = kind;
+            this.label = label;
+            this.positions = positions;
+            this.tasks = tasks;
+        }
+
+        /**
+         * Puts tasks back at the given positions.
+         *
+         * @param label what the original command did, e.g. "deleting 3 task(s)"
+         * @param positions 0-based positions the tasks end up at, ascending
+         * @param tasks tasks to insert, in the same order
+         */
+        public static Step insert(String label, int[] positions, List<Task> tasks) {
+            return new Step(Kind.INSERT, label, positions, tasks);
+        }
+
+        /**
+         * Removes the tasks at the given positions.
+         *
+         * @param positions 0-based positions, ascending
+         */
+        public static Step remove(String label, int[] positions) {
+            return new Step(Kind.REMOVE, label, positions, null);
+        }
+
+        /**
+         * Puts earlier versions of tasks, e.g. with their previous status, back in place.
+         *
+         * @param positions 0-based positions, ascending
+         * @param tasks the versions to put back, in the same order
+         */
+        public static Step replace(String label, int[] positions, List<Task> tasks) {
+            return new Step(Kind.REPLACE, label, positions, tasks);
+        }
+
+        /**
+         * Reorders the list, moving the task now at position {@code i} to {@code destinations[i]}.
+         *
+         * @param destinations a permutation of the list's positions
+         */
+        public static Step permute(String label, int[] destinations) {
+            return new Step(Kind.PERMUTE, label, destinations, null);
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public int[] getPositions() {
+            return positions;
+        }
+
+        public List<Task> getTasks() {
+            return tasks;
+        }
+    }
+}
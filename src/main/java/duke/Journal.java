@@ -0,0 +1,163 @@
+package duke;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only log of task list mutations that sits next to the snapshot file.
+ * The first line names the checksum of the snapshot the records apply to, so a
+ * log left behind by an interrupted compaction is never replayed twice.
+ * A log that was stale or torn when read is rewritten before anything is appended to it,
+ * so new records never end up behind a line that stops the replay.
+ */
+public class Journal {
+    private static final String HEADER_PREFIX = "# base ";
+
+    private final Path file;
+    private boolean isIntact = true;
+
+    public Journal(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Appends records to the log in a single write, starting a new log if needed.
+     *
+     * @param records encoded records, one per line
+     * @param baseChecksum checksum of the snapshot the records apply to
+     * @param syncer decides whether the append is forced to disk before returning
+     * @throws IOException if the log cannot be written
+     */
+    public void append(List<String> records, long baseChecksum, FileSyncer syncer) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        if (size() == 0) {
+            sb.append(HEADER_PREFIX).append(baseChecksum).append('\n');
+        }
+        for (String record : records) {
+            sb.append(record).append('\n');
+        }
+
+        ByteBuffer bytes = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+        boolean isForced = syncer.shouldForceNow();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            if (isForced) {
+                channel.force(false);
+            }
+        }
+        if (!isForced) {
+            syncer.forceLater(file);
+        }
+    }
+
+    /**
+     * Reads the records that apply to the given snapshot.
+     * A log written against a different snapshot, or a torn final line, is ignored;
+     * {@link #isIntact()} then reports that the log needs to be rewritten.
+     *
+     * @param baseChecksum checksum of the snapshot that was just loaded
+     * @return records in the order they were appended (possibly empty)
+     * @throws IOException if the log exists but cannot be read
+     */
+    public List<String> readRecords(long baseChecksum) throws IOException {
+        List<String> records = new ArrayList<>();
+        isIntact = true;
+        if (Files.notExists(file)) {
+            return records;
+        }
+
+        String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        int end = content.lastIndexOf('\n'); // anything after the last newline is a torn write
+        isIntact = end == content.length() - 1;
+        if (end < 0) {
+            return records;
+        }
+
+        String[] lines = content.substring(0, end).split("\n");
+        if (!lines[0].equals(HEADER_PREFIX + baseChecksum)) {
+            isIntact = false;
+            return records; // stale log from before the current snapshot
+        }
+
+        for (int i = 1; i < lines.length; i++) {
+            if (!lines[i].isEmpty()) {
+                records.add(lines[i]);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Returns whether the last {@link #readRecords} found a log that applies to the snapshot
+     * and ends with a complete line, so that records can be appended to it as it is.
+     */
+    public boolean isIntact() {
+        return isIntact;
+    }
+
+    /**
+     * Replaces the log with the given records under a fresh header, e.g. to drop a stale log
+     * or to cut it back to the last record that could be replayed. An empty list discards the log.
+     *
+     * @param records encoded records to keep, one per line
+     * @param baseChecksum checksum of the snapshot the records apply to
+     * @throws IOException if the log cannot be written
+     */
+    public void rewrite(List<String> records, long baseChecksum) throws IOException {
+        isIntact = true;
+        if (records.isEmpty()) {
+            reset();
+            return;
+        }
+
+        StringBuilder sb = new StringBuilder(HEADER_PREFIX).append(baseChecksum).append('\n');
+        for (String record : records) {
+            sb.append(record).append('\n');
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        ByteBuffer bytes = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Returns the current size of the log in bytes (0 if it does not exist).
+     */
+    public long size() throws IOException {
+        return Files.exists(file) ? Files.size(file) : 0;
+    }
+
+    /**
+     * Discards the log, typically right after a fresh snapshot has been written.
+     */
+    public void reset() throws IOException {
+        Files.deleteIfExists(file);
+    }
+}
@@ -0,0 +1,109 @@
+package duke;
+
+import java.util.Arrays;
+
+/**
+ * Maps the ids handed out by the search indexes to current list positions.
+ *
+ * <p>Ids grow with position as tasks are appended. A delete only marks its id as gone in a
+ * Fenwick tree, so turning an id into a position (the number of live ids before it) and
+ * finding the id at a position both take O(log n), without renumbering later tasks.</p>
+ */
+class LivePositions {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MIN_REBUILD_DEAD = 1024;
+
+    private int nextId;
+    private int liveCount;
+    private boolean[] isLive = new boolean[INITIAL_CAPACITY];
+    private int[] tree = new int[INITIAL_CAPACITY + 1];
+
+    /**
+     * Hands out the id of a task appended at the end of the list.
+     */
+    int append() {
+        int id = nextId++;
+        ensureCapacity(nextId);
+        isLive[id] = true;
+        liveCount++;
+        add(id, 1);
+        return id;
+    }
+
+    /**
+     * Forgets the task at the given position; later tasks move up by one.
+     */
+    void remove(int position) {
+        int id = idAt(position);
+        isLive[id] = false;
+        liveCount--;
+        add(id, -1);
+    }
+
+    boolean isLive(int id) {
+        return isLive[id];
+    }
+
+    /**
+     * Returns the position of a live id.
+     */
+    int positionOf(int id) {
+        int count = 0;
+        for (int i = id; i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+
+    /**
+     * Returns whether so many ids are dead that rebuilding the index would make queries noticeably cheaper.
+     */
+    boolean isWorthRebuilding() {
+        int dead = nextId - liveCount;
+        return dead > MIN_REBUILD_DEAD && dead > liveCount;
+    }
+
+    /**
+     * Returns the id of the live task at the given position.
+     */
+    int idAt(int position) {
+        int node = 0;
+        int remaining = position + 1;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            int next = node + step;
+            if (next < tree.length && tree[next] < remaining) {
+                node = next;
+                remaining -= tree[next];
+            }
+        }
+        return node; // tree slot node + 1 holds id node
+    }
+
+    // ========== Private Methods ==========
+
+    private void add(int id, int delta) {
+        for (int i = id + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= isLive.length) {
+            return;
+        }
+
+        isLive = Arrays.copyOf(isLive, Math.max(capacity, isLive.length * 2));
+        tree = new int[isLive.length + 1];
+        for (int id = 0; id < isLive.length; id++) {
+            if (isLive[id]) {
+                tree[id + 1]++;
+            }
+        }
+        for (int i = 1; i < tree.length; i++) {
+            int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+}
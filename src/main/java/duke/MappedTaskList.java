@@ -0,0 +1,434 @@
+package duke;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+
+/**
+ * A task list backed by a memory-mapped copy of a text snapshot.
+ * Opening only records where each line starts and ends; a {@code Task} is built
+ * when the line is read, and kept only once it is replaced or added through this list.
+ * Callers that change a task in place must {@link #set} it back so the change sticks.
+ * An id given to a line that has none is kept next to the line's bounds, so the task is not built for it.
+ *
+ * <p>The mapping is taken of a private copy of the data file, so the data file itself can
+ * be rewritten freely (also on platforms that refuse to replace a mapped file). The copy is
+ * deleted right away where a mapped file can be deleted; elsewhere it is left behind and
+ * removed by the next {@link #open} of the same file, once its mapping is gone.</p>
+ */
+public class MappedTaskList extends AbstractList<Task> implements RandomAccess, CompactTaskList {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MAX_FIELD_SLOTS = 10;
+    private static final int MAX_TYPE_FIELD_LENGTH = 12; // a letter, '#' and up to 9 digits, then a separator
+
+    private final ByteBuffer mapped;
+    private int[] starts;
+    private int[] ends;
+    private int[] assignedIds; // ids given to unpinned lines that have none in the file, or 0
+    private Task[] pinned;
+    private int size;
+
+    private final List<Integer> skippedLines;
+    private final long checksum;
+
+    private MappedTaskList(ByteBuffer mapped, int[] starts, int[] ends, int[] assignedIds, Task[] pinned,
+                           int size, List<Integer> skippedLines, long checksum) {
+        this.mapped = mapped;
+        this.starts = starts;
+        this.ends = ends;
+        this.assignedIds = assignedIds;
+        this.pinned = pinned;
+        this.size = size;
+        this.skippedLines = skippedLines;
+        this.checksum = checksum;
+    }
+
+    /**
+     * Maps a private copy of the given text snapshot and indexes its lines.
+     *
+     * @param file data file in the text format
+     * @return list whose tasks are built on first access
+     * @throws IOException if the file cannot be copied or mapped, or is too large to map
+     */
+    public static MappedTaskList open(Path file) throws IOException {
+        if (Files.size(file) > Integer.MAX_VALUE) {
+            throw new IOException(file.getFileName() + " is too large to map");
+        }
+
+        Path dir = file.toAbsolutePath().getParent();
+        String prefix = file.getFileName() + ".";
+        deleteStaleCopies(dir, prefix);
+        Path copy = Files.createTempFile(dir, prefix, ".map");
+        ByteBuffer mapped;
+        try {
+            Files.copy(file, copy, StandardCopyOption.REPLACE_EXISTING);
+            try (FileChannel channel = FileChannel.open(copy, StandardOpenOption.READ)) {
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        } finally {
+            deleteCopy(copy);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(mapped.duplicate());
+        return index(mapped, crc.getValue());
+    }
+
+    /**
+     * Returns a structurally independent copy that shares the mapping, without building any tasks.
+     */
+    @Override
+    public MappedTaskList copy() {
+        return new MappedTaskList(mapped, Arrays.copyOf(starts, size), Arrays.copyOf(ends, size),
+                Arrays.copyOf(assignedIds, size), Arrays.copyOf(pinned, size), size, skippedLines, checksum);
+    }
+
+    @Override
+    public MappedTaskList copyRange(int from, int to) {
+        return new MappedTaskList(mapped, Arrays.copyOfRange(starts, from, to), Arrays.copyOfRange(ends, from, to),
+                Arrays.copyOfRange(assignedIds, from, to), Arrays.copyOfRange(pinned, from, to), to - from,
+                skippedLines, checksum);
+    }
+
+    /**
+     * Returns the 1-based line numbers that were not valid tasks and were left out.
+     */
+    public List<Integer> getSkippedLines() {
+        return skippedLines;
+    }
+
+    /**
+     * Returns the CRC32 of the mapped snapshot.
+     */
+    public long getChecksum() {
+        return checksum;
+    }
+
+    /**
+     * Appends the original bytes of an untouched line, so saving does not build its task.
+     * An id assigned with {@link #setIdAt} is written into the line's type field.
+     *
+     * @param index position in the list
+     * @param out stream to append the line to (without a line separator)
+     * @return false if the task at this position was replaced or added and must be serialized
+     */
+    public boolean writeRawLine(int index, ByteArrayOutputStream out) {
+        checkIndex(index);
+        if (pinned[index] != null) {
+            return false;
+        }
+
+        byte[] line = new byte[ends[index] - starts[index]];
+        mapped.get(starts[index], line);
+        if (assignedIds[index] == 0) {
+            out.writeBytes(line);
+        } else {
+            out.write(line[0]);
+            out.writeBytes(("#" + assignedIds[index]).getBytes(StandardCharsets.US_ASCII));
+            int typeEnd = typeFieldEnd(line);
+            out.write(line, typeEnd, line.length - typeEnd);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the id of the task at the given position, reading it from the line's type
+     * field instead of building the task.
+     *
+     * @param index position in the list
+     * @return the task's id, or 0 if it has none
+     */
+    @Override
+    public int idAt(int index) {
+        checkIndex(index);
+        if (pinned[index] != null) {
+            return pinned[index].getId();
+        }
+        if (assignedIds[index] != 0) {
+            return assignedIds[index];
+        }
+
+        byte[] head = new byte[Math.min(ends[index] - starts[index], MAX_TYPE_FIELD_LENGTH)];
+        mapped.get(starts[index], head);
+        return TaskFileReader.parseId(head, 0, typeFieldEnd(head));
+    }
+
+    /**
+     * Gives the task at the given position a new id. An untouched line keeps it next to its
+     * bounds, so the task is still not built.
+     */
+    @Override
+    public void setIdAt(int index, int id) {
+        checkIndex(index);
+        if (pinned[index] != null) {
+            Task task = pinned[index].withStatus(pinned[index].isDone); // the pinned task may be shared with a copy
+            task.setId(id);
+            pinned[index] = task;
+        } else {
+            assignedIds[index] = id;
+        }
+    }
+
+    // ========== List Methods ==========
+
+    @Override
+    public Task get(int index) {
+        checkIndex(index);
+        if (pinned[index] != null) {
+            return pinned[index];
+        }
+
+        byte[] line = new byte[ends[index] - starts[index]];
+        mapped.get(starts[index], line);
+        Task task = TaskFileReader.parseLine(line, 0, line.length);
+        if (assignedIds[index] != 0) {
+            task.setId(assignedIds[index]);
+        }
+        return task;
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        Task previous = get(index);
+        pinned[index] = task;
+        assignedIds[index] = 0;
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        if (size == pinned.length) {
+            int capacity = Math.max(INITIAL_CAPACITY, size + (size >> 1));
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            assignedIds = Arrays.copyOf(assignedIds, capacity);
+            pinned = Arrays.copyOf(pinned, capacity);
+        }
+
+        shift(index, index + 1, size - index);
+        starts[index] = -1;
+        ends[index] = -1;
+        assignedIds[index] = 0;
+        pinned[index] = task;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task removed = get(index);
+        shift(index + 1, index, size - index - 1);
+        size--;
+        pinned[size] = null;
+        modCount++;
+        return removed;
+    }
+
+    /**
+     * Removes matching tasks in a single pass instead of shifting the arrays once per removal.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super Task> filter) {
+        BitSet positions = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            if (filter.test(get(i))) {
+                positions.set(i);
+            }
+        }
+        return removePositions(positions);
+    }
+
+    /**
+     * Removes the tasks at the given positions in a single pass, without building any task.
+     *
+     * @param positions 0-based positions to remove
+     * @return whether anything was removed
+     */
+    @Override
+    public boolean removePositions(BitSet positions) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (!positions.get(i)) {
+                starts[kept] = starts[i];
+                ends[kept] = ends[i];
+                assignedIds[kept] = assignedIds[i];
+                pinned[kept] = pinned[i];
+                kept++;
+            }
+        }
+        if (kept == size) {
+            return false;
+        }
+
+        Arrays.fill(pinned, kept, size, null);
+        size = kept;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Inserts tasks at the given positions in a single pass from the end, instead of
+     * shifting the arrays once per insertion.
+     *
+     * @param positions 0-based positions the tasks occupy afterwards, ascending
+     * @param inserted tasks to insert, in the same order
+     */
+    @Override
+    public void insertAll(int[] positions, List<Task> inserted) {
+        int newSize = size + positions.length;
+        if (newSize > pinned.length) {
+            int capacity = Math.max(INITIAL_CAPACITY, newSize + (newSize >> 1));
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            assignedIds = Arrays.copyOf(assignedIds, capacity);
+            pinned = Arrays.copyOf(pinned, capacity);
+        }
+
+        int next = positions.length - 1;
+        int from = size - 1;
+        for (int to = newSize - 1; to >= 0 && next >= 0; to--) {
+            if (positions[next] == to) {
+                starts[to] = -1;
+                ends[to] = -1;
+                assignedIds[to] = 0;
+                pinned[to] = inserted.get(next--);
+            } else {
+                starts[to] = starts[from];
+                ends[to] = ends[from];
+                assignedIds[to] = assignedIds[from];
+                pinned[to] = pinned[from];
+                from--;
+            }
+        }
+        size = newSize;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // ========== Private Methods ==========
+
+    /**
+     * Records the trimmed bounds of every valid line in the mapping.
+     */
+    private static MappedTaskList index(ByteBuffer mapped, long checksum) {
+        int limit = mapped.limit();
+        int[] starts = new int[INITIAL_CAPACITY];
+        int[] ends = new int[INITIAL_CAPACITY];
+        int count = 0;
+        List<Integer> skipped = new ArrayList<>();
+
+        byte[] line = new byte[256];
+        int[] fields = new int[MAX_FIELD_SLOTS];
+        int lineStart = 0;
+        int lineNumber = 1;
+        for (int i = 0; i <= limit; i++) {
+            if (i < limit && mapped.get(i) != '\n') {
+                continue;
+            }
+
+            int length = i - lineStart;
+            if (length > line.length) {
+                line = new byte[Math.max(length, line.length * 2)];
+            }
+            mapped.get(lineStart, line, 0, length);
+            int start = TaskFileReader.skipWhitespace(line, 0, length);
+            int end = TaskFileReader.trimWhitespace(line, start, length);
+
+            if (start == end) {
+                // blank line
+            } else if (TaskFileReader.isValidLine(line, start, end, fields)) {
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                    ends = Arrays.copyOf(ends, count * 2);
+                }
+                starts[count] = lineStart + start;
+                ends[count] = lineStart + end;
+                count++;
+            } else {
+                skipped.add(lineNumber);
+            }
+            lineStart = i + 1;
+            lineNumber++;
+        }
+
+        int capacity = Math.max(INITIAL_CAPACITY, count);
+        return new MappedTaskList(mapped, Arrays.copyOf(starts, capacity), Arrays.copyOf(ends, capacity),
+                new int[capacity], new Task[capacity], count, skipped, checksum);
+    }
+
+    private void shift(int from, int to, int length) {
+        System.arraycopy(starts, from, starts, to, length);
+        System.arraycopy(ends, from, ends, to, length);
+        System.arraycopy(assignedIds, from, assignedIds, to, length);
+        System.arraycopy(pinned, from, pinned, to, length);
+    }
+
+    /**
+     * Returns where the type field at the start of a line ends: after the type letter and any {@code #id}.
+     */
+    private static int typeFieldEnd(byte[] line) {
+        int end = 1;
+        while (end < line.length && line[end] != '|' && line[end] != ' ' && line[end] != '\t') {
+            end++;
+        }
+        return end;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * Deletes copies left behind by earlier opens; one still mapped by a running instance is skipped.
+     */
+    private static void deleteStaleCopies(Path dir, String prefix) throws IOException {
+        try (DirectoryStream<Path> copies = Files.newDirectoryStream(dir, path -> {
+            String name = path.getFileName().toString();
+            return name.startsWith(prefix) && name.endsWith(".map");
+        })) {
+            for (Path copy : copies) {
+                try {
+                    Files.deleteIfExists(copy);
+                } catch (IOException e) {
+                    // still mapped elsewhere; a later open removes it
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the private copy once it is mapped. Where a mapped file cannot be
+     * deleted (Windows), it is removed when the program exits instead.
+     */
+    private static void deleteCopy(Path copy) {
+        try {
+            Files.deleteIfExists(copy);
+        } catch (IOException e) {
+            copy.toFile().deleteOnExit();
+        }
+    }
+}
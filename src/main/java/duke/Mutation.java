@@ -0,0 +1,79 @@
+package duke;
+
+/**
+ * Describes a single change made to the task list so that storage can persist
+ * just that change instead of rewriting every task.
+ */
+public class Mutation {
+
+    /**
+     * The kinds of change that can be recorded incrementally.
+     */
+    public enum Kind {
+        ADD, INSERT, MARK, UNMARK, DELETE
+    }
+
+    private final Kind kind;
+    private final int index;
+    private final Task task;
+
+    private Mutation(Kind kind, int index, Task task) {
+        this.kind = kind;
+        this.index = index;
+        this.task = task;
+    }
+
+    /**
+     * Creates a mutation for a task appended to the end of the list.
+     *
+     * @param task task that was added
+     * @return add mutation
+     */
+    public static Mutation add(Task task) {
+        return new Mutation(Kind.ADD, -1, task);
+    }
+
+    /**
+     * Creates a mutation for a task put back at a position, moving later tasks down by one.
+     *
+     * @param zeroBasedIndex position the task occupies after insertion
+     * @param task task that was inserted
+     * @return insert mutation
+     */
+    public static Mutation insert(int zeroBasedIndex, Task task) {
+        return new Mutation(Kind.INSERT, zeroBasedIndex, task);
+    }
+
+    /**
+     * Creates a mutation for a change in completion status.
+     *
+     * @param zeroBasedIndex position of the task in the list
+     * @param isDone new completion status
+     * @return mark or unmark mutation
+     */
+    public static Mutation status(int zeroBasedIndex, boolean isDone) {
+        return new Mutation(isDone ? Kind.MARK : Kind.UNMARK, zeroBasedIndex, null);
+    }
+
+    /**
+     * Creates a mutation for a task removed from the list.
+     *
+     * @param zeroBasedIndex position the task occupied before removal
+     * @return delete mutation
+     */
+    public static Mutation delete(int zeroBasedIndex) {
+        return new Mutation(Kind.DELETE, zeroBasedIndex, null);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+}
@@ -1,10 +1,15 @@
 package duke;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.BitSet;
+
 /**
  * Parses user input lines and dispatches to task operations.
  * Throws BoshException for invalid or incomplete commands.
  */
 public class Parser {
+    private static final int DEFAULT_UPCOMING_COUNT = 10;
 
     /**
      * Handles a single input line by mutating the given TaskList and printing output.
@@ -32,7 +37,7 @@ public class Parser {
         }
 
         // Fallback: treat as todo task (Level-2 behavior)
-        tasks.add(new Todo(line));
+        tasks.add(new Todo(pooled(line)));
     }
 
     /**
@@ -53,14 +58,26 @@ public class Parser {
             case "list":
                 tasks.list();
                 return true;
+            case "list --ids":
+                tasks.listWithIds();
+                return true;
             case "sort":
                 tasks.sortByDescription();
                 return true;
+            case "stats":
+                tasks.stats();
+                return true;
+            case "undo":
+                tasks.undo();
+                return true;
+            case "redo":
+                tasks.redo();
+                return true;
             case "help":
                 showHelp();
                 return true;
             case "delete":
-                throw new BoshException("Usage: delete <task-number>");
+                throw new BoshException("Usage: delete <task-number|#id>");
             case "todo":
                 throw new EmptyDescriptionException("todo");
             case "deadline":
@@ -69,6 +86,30 @@ public class Parser {
                 throw new MissingArgumentException("Usage: event <desc> /from <start> /to <end>");
             case "find":
                 throw new BoshException("Usage: find <keyword>");
+            case "list by":
+                throw new BoshException("Usage: list by <description|type|date|status>");
+            case "archive":
+                tasks.archive();
+                return true;
+            case "restore":
+                throw new BoshException("Usage: restore <archived-task-number>");
+            case "overdue":
+                tasks.overdue();
+                return true;
+            case "upcoming":
+                tasks.upcoming(DEFAULT_UPCOMING_COUNT);
+                return true;
+            case "due before":
+                throw new BoshException("Usage: due before <yyyy-mm-dd>");
+            case "agenda":
+                throw new BoshException("Usage: agenda <yyyy-mm-dd> [<yyyy-mm-dd>]");
+            case "conflicts":
+                tasks.conflicts();
+                return true;
+            case "events on":
+                throw new BoshException("Usage: events on <yyyy-mm-dd>");
+            case "free":
+                throw new BoshException("Usage: free <yyyy-mm-dd>");
             default:
                 return false;
         }
@@ -83,30 +124,60 @@ public class Parser {
         if (handleTaskManagementCommands(line, tasks)) return true;
         if (handleTaskCreationCommands(line, tasks)) return true;
         if (handleUtilityCommands(line, tasks)) return true;
+        if (handleDateCommands(line, tasks)) return true;
 
         return false;
     }
 
     /**
-     * Handles task management commands (mark, unmark, delete).
+     * Handles task management commands (mark, unmark, delete, restore).
+     * Ids are looked up in the same change that uses them, so another instance
+     * sharing the data file cannot move the task in between.
      */
     private static boolean handleTaskManagementCommands(String line, TaskList tasks) throws BoshException {
         if (line.startsWith("mark ")) {
-            int idx = parsePositiveIndex(line.substring(5).trim());
-            tasks.mark(idx);
+            String arg = line.substring(5).trim();
+            tasks.runAsOneChange(() -> {
+                if (isTaskNumberList(arg)) {
+                    tasks.markAll(parseTaskNumbers(arg, tasks));
+                } else {
+                    tasks.mark(parseTaskReference(arg, tasks));
+                }
+            });
             return true;
         }
 
         if (line.startsWith("unmark ")) {
-            int idx = parsePositiveIndex(line.substring(7).trim());
-            tasks.unmark(idx);
+            String arg = line.substring(7).trim();
+            tasks.runAsOneChange(() -> {
+                if (isTaskNumberList(arg)) {
+                    tasks.unmarkAll(parseTaskNumbers(arg, tasks));
+                } else {
+                    tasks.unmark(parseTaskReference(arg, tasks));
+                }
+            });
             return true;
         }
 
         if (line.startsWith("delete ")) {
-            int idx = parsePositiveIndex(line.substring(7).trim());
-            validateTaskExists(idx, tasks);
-            tasks.delete(idx);
+            String arg = line.substring(7).trim();
+            tasks.runAsOneChange(() -> {
+                if (arg.equalsIgnoreCase("all done")) {
+                    tasks.deleteDone();
+                } else if (isTaskNumberList(arg)) {
+                    tasks.deleteAll(parseTaskNumbers(arg, tasks));
+                } else {
+                    int idx = parseTaskReference(arg, tasks);
+                    validateTaskExists(idx, tasks);
+                    tasks.delete(idx);
+                }
+            });
+            return true;
+        }
+
+        if (line.startsWith("restore ")) {
+            int idx = parsePositiveIndex(line.substring(8).trim());
+            tasks.restore(idx);
             return true;
         }
 
@@ -136,15 +207,53 @@ public class Parser {
     }
 
     /**
-     * Handles utility commands (sort, find).
+     * Handles utility commands (list by, sort, find).
      */
     private static boolean handleUtilityCommands(String line, TaskList tasks) throws BoshException {
+        if (line.startsWith("list by ")) {
+            tasks.listBy(parseSortOrder(line.substring(8).trim()));
+            return true;
+        }
+
+        if (line.startsWith("list page ")) {
+            tasks.listPage(parsePositiveIndex(line.substring(10).trim()));
+            return true;
+        }
+
+        if (line.startsWith("list ")) {
+            String[] range = line.substring(5).trim().split("\\s+");
+            if (range.length != 2) {
+                throw new BoshException("Usage: list <offset> <count>, or list page <number>");
+            }
+            tasks.list(parseOffset(range[0]), parsePositiveIndex(range[1]));
+            return true;
+        }
+
         if (line.startsWith("sort ")) {
             String sortBy = line.substring(5).trim();
             handleSortCommand(sortBy, tasks);
             return true;
         }
 
+        if (line.equals("find -w") || line.startsWith("find -w ")) {
+            tasks.findWords(line.substring(7).trim());
+            return true;
+        }
+
+        if (line.startsWith("find ~")) {
+            tasks.findFuzzy(line.substring(6).replace("~", " ").trim());
+            return true;
+        }
+
+        if (line.startsWith("find --archive")) {
+            String keyword = line.substring(14).trim();
+            if (keyword.isEmpty()) {
+                throw new BoshException("Usage: find --archive <keyword>");
+            }
+            tasks.findArchived(keyword);
+            return true;
+        }
+
         if (line.startsWith("find ")) {
             String keyword = line.substring(5).trim();
             validateKeyword(keyword);
@@ -155,6 +264,43 @@ public class Parser {
         return false;
     }
 
+    /**
+     * Handles date queries (due before, upcoming, agenda, events on, free).
+     */
+    private static boolean handleDateCommands(String line, TaskList tasks) throws BoshException {
+        if (line.startsWith("events on ")) {
+            tasks.eventsOn(parseDate(line.substring(10).trim()));
+            return true;
+        }
+
+        if (line.startsWith("free ")) {
+            tasks.free(parseDate(line.substring(5).trim()));
+            return true;
+        }
+
+        if (line.startsWith("due before ")) {
+            tasks.dueBefore(parseDate(line.substring(11).trim()));
+            return true;
+        }
+
+        if (line.startsWith("upcoming ")) {
+            tasks.upcoming(parseDeadlineCount(line.substring(9).trim()));
+            return true;
+        }
+
+        if (line.startsWith("agenda ")) {
+            String[] days = line.substring(7).trim().split("\\s+");
+            if (days.length > 2) {
+                throw new BoshException("Usage: agenda <yyyy-mm-dd> [<yyyy-mm-dd>]");
+            }
+            LocalDate from = parseDate(days[0]);
+            tasks.agenda(from, days.length == 2 ? parseDate(days[1]) : from);
+            return true;
+        }
+
+        return false;
+    }
+
     /**
      * Handles todo command creation with validation.
      */
@@ -163,7 +309,7 @@ public class Parser {
         if (desc.isEmpty()) {
             throw new EmptyDescriptionException("todo");
         }
-        tasks.add(new Todo(desc));
+        tasks.add(new Todo(pooled(desc)));
     }
 
     /**
@@ -181,7 +327,7 @@ public class Parser {
         String by = rest.substring(byIdx + 3).trim();
 
         validateDeadlineInputs(desc, by);
-        tasks.add(new Deadline(desc, by));
+        tasks.add(new Deadline(pooled(desc), pooled(by)));
     }
 
     /**
@@ -201,7 +347,18 @@ public class Parser {
         String to = rest.substring(toIdx + 3).trim();
 
         validateEventInputs(desc, from, to);
-        tasks.add(new Event(desc, from, to));
+        Event event = new Event(pooled(desc), pooled(from), pooled(to));
+        if (event.start != null && event.end != null && !event.isScheduled()) {
+            throw new BoshException("The event has to end after it starts.");
+        }
+        tasks.add(event);
+    }
+
+    /**
+     * Returns the shared pool's copy of a text a new task keeps, so repeated text is kept once.
+     */
+    private static String pooled(String text) {
+        return StringPool.shared().canonical(text);
     }
 
     /**
@@ -263,14 +420,40 @@ public class Parser {
                 "  deadline <desc> /by <time> - Add a deadline task",
                 "  event <desc> /from <start> /to <end> - Add an event task",
                 "  list - Show all tasks",
+                "  list --ids - Show all tasks with their ids",
+                "  list page <n> - Show one page of " + TaskList.PAGE_SIZE + " tasks, e.g. list page 2",
+                "  list <offset> <count> - Show count tasks after skipping offset, e.g. list 40 20",
                 "  mark <task-number> - Mark task as done",
                 "  unmark <task-number> - Mark task as not done",
                 "  delete <task-number> - Delete a task",
+                "  mark/unmark/delete #<id> - Refer to a task by id instead, e.g. mark #12",
+                "  mark/unmark/delete <numbers> - Several at once, e.g. 1,4,9-20,#31",
+                "  delete all done - Delete every completed task",
+                "  undo - Reverse the latest change to the list",
+                "  redo - Make the latest undone change again",
                 "",
                 "Search & Organization:",
                 "  find <keyword> - Find tasks containing keyword",
+                "  find -w <word>... - Find tasks containing all the given whole words",
+                "  find ~<word>... - Find tasks containing the given words, allowing for typos",
                 "  sort - Sort tasks by description",
                 "  sort <criteria> - Sort by: description, type, date, status",
+                "  list by <criteria> - Show tasks in that order, keeping their numbers",
+                "  stats - Show how many tasks are done, pending and overdue",
+                "",
+                "Dates:",
+                "  due before <yyyy-mm-dd> - Show pending deadlines due before that day",
+                "  upcoming [count] - Show the next pending deadlines (10 by default)",
+                "  overdue - Show pending deadlines that have passed",
+                "  agenda <from> [<to>] - Show pending deadlines day by day, e.g. agenda 2025-01-01 2025-01-07",
+                "  events on <yyyy-mm-dd> - Show the events on that day",
+                "  free <yyyy-mm-dd> - Show the times of that day no event takes up",
+                "  conflicts - Show events that overlap",
+                "",
+                "Archive:",
+                "  archive - Move completed tasks to the archive",
+                "  find --archive <keyword> - Find archived tasks containing keyword",
+                "  restore <archived-task-number> - Move an archived task back to the list",
                 "",
                 "Other:",
                 "  help - Show this help message",
@@ -286,27 +469,152 @@ public class Parser {
      * @throws BoshException if invalid sort criteria is provided
      */
     private static void handleSortCommand(String sortBy, TaskList tasks) throws BoshException {
-        switch (sortBy.toLowerCase()) {
-            case "description":
-            case "desc":
+        switch (parseSortOrder(sortBy)) {
+            case DESCRIPTION:
                 tasks.sortByDescription();
                 break;
-            case "type":
+            case TYPE:
                 tasks.sortByType();
                 break;
-            case "date":
-            case "deadline":
+            case DEADLINE:
                 tasks.sortByDeadline();
                 break;
+            default:
+                tasks.sortByStatus();
+        }
+    }
+
+    /**
+     * Parses the criteria accepted by {@code sort} and {@code list by}.
+     *
+     * @param criteria the criteria as typed
+     * @return matching order
+     * @throws BoshException if invalid sort criteria is provided
+     */
+    private static SortOrder parseSortOrder(String criteria) throws BoshException {
+        switch (criteria.toLowerCase()) {
+            case "description":
+            case "desc":
+                return SortOrder.DESCRIPTION;
+            case "type":
+                return SortOrder.TYPE;
+            case "date":
+            case "deadline":
+                return SortOrder.DEADLINE;
             case "status":
             case "done":
-                tasks.sortByStatus();
-                break;
+                return SortOrder.STATUS;
             default:
                 throw new BoshException("Invalid sort criteria. Available options: description, type, date, status");
         }
     }
 
+    /**
+     * Checks whether an argument names several tasks, e.g. {@code 1,4,9-20}.
+     */
+    private static boolean isTaskNumberList(String s) {
+        return s.indexOf(',') >= 0 || s.indexOf('-') >= 0;
+    }
+
+    /**
+     * Parses a comma-separated list of task numbers, ids and ranges such as {@code 1,4,9-20,#31}.
+     *
+     * @param s list to parse
+     * @param tasks list the numbers refer to
+     * @return 1-based task numbers, ascending and without repeats
+     * @throws BoshException if a part is not a positive number, a known id or a range from low to high
+     */
+    private static int[] parseTaskNumbers(String s, TaskList tasks) throws BoshException {
+        BitSet numbers = new BitSet();
+        for (String part : s.split(",")) {
+            String trimmed = part.trim();
+            int dash = trimmed.indexOf('-');
+            if (dash < 0) {
+                numbers.set(parseTaskReference(trimmed, tasks));
+                continue;
+            }
+
+            int from = parsePositiveIndex(trimmed.substring(0, dash).trim());
+            int to = parsePositiveIndex(trimmed.substring(dash + 1).trim());
+            if (from > to) {
+                throw new BoshException("Ranges go from low to high, e.g. " + to + "-" + from + ".");
+            }
+            validateTaskExists(to, tasks);
+            numbers.set(from, to + 1);
+        }
+        return numbers.stream().toArray();
+    }
+
+    /**
+     * Parses a task number, or a task id written as {@code #<id>}, into a task number.
+     *
+     * @param s task number or id reference
+     * @param tasks list the reference is resolved in
+     * @return 1-based task number
+     * @throws BoshException if the reference is malformed or no task has the given id
+     */
+    private static int parseTaskReference(String s, TaskList tasks) throws BoshException {
+        if (!s.startsWith("#")) {
+            return parsePositiveIndex(s);
+        }
+        try {
+            int id = Integer.parseInt(s.substring(1).trim());
+            if (id <= 0) throw new NumberFormatException();
+            return tasks.indexOfId(id);
+        } catch (NumberFormatException e) {
+            throw new BoshException("Please give a valid task id, e.g. #12.");
+        }
+    }
+
+    /**
+     * Parses a day written as {@code yyyy-mm-dd}, the way deadlines are written.
+     *
+     * @param s day to parse
+     * @return parsed day
+     * @throws BoshException if the day is not in that format
+     */
+    private static LocalDate parseDate(String s) throws BoshException {
+        try {
+            return LocalDate.parse(s);
+        } catch (DateTimeParseException e) {
+            throw new BoshException("Please give the day as yyyy-mm-dd, e.g. 2025-01-01.");
+        }
+    }
+
+    /**
+     * Parses how many deadlines to show, which must be at least 1.
+     *
+     * @param s string to parse
+     * @return positive integer
+     * @throws BoshException if string is not a valid positive integer
+     */
+    private static int parseDeadlineCount(String s) throws BoshException {
+        try {
+            int count = Integer.parseInt(s);
+            if (count <= 0) throw new NumberFormatException();
+            return count;
+        } catch (NumberFormatException e) {
+            throw new BoshException("Please give how many deadlines to show as 1 or more.");
+        }
+    }
+
+    /**
+     * Parses how many tasks to skip, which may be 0.
+     *
+     * @param s string to parse
+     * @return non-negative integer
+     * @throws BoshException if string is not a valid non-negative integer
+     */
+    private static int parseOffset(String s) throws BoshException {
+        try {
+            int offset = Integer.parseInt(s);
+            if (offset < 0) throw new NumberFormatException();
+            return offset;
+        } catch (NumberFormatException e) {
+            throw new BoshException("Please give how many tasks to skip as 0 or more.");
+        }
+    }
+
     /**
      * Parses a string to a positive integer for task indexing.
      *
@@ -0,0 +1,86 @@
+package duke;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ascending ids of the tasks containing one search term, as kept by the search indexes.
+ */
+class PostingList {
+    private int[] ids = new int[4];
+    private int size;
+
+    /**
+     * Adds an id greater than or equal to every id already in the list; a repeat of the last is ignored.
+     */
+    void addIfLast(int id) {
+        if (size > 0 && ids[size - 1] == id) {
+            return; // term repeated within one description
+        }
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        ids[size++] = id;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int index) {
+        return ids[index];
+    }
+
+    /**
+     * Returns the first index at or after {@code from} whose id is at least {@code id},
+     * galloping so a long list is crossed in logarithmic steps.
+     */
+    int seek(int from, int id) {
+        int step = 1;
+        int low = from;
+        int high = from;
+        while (high < size && ids[high] < id) {
+            low = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        high = Math.min(high + 1, size);
+        int found = Arrays.binarySearch(ids, low, high, id);
+        return found >= 0 ? found : -found - 1;
+    }
+
+    /**
+     * Intersects posting lists, walking the shortest and seeking in the others,
+     * which only ever move forward.
+     *
+     * @param lists lists to intersect, at least one
+     * @param live ids to keep
+     * @return positions of the live ids in every list, ascending
+     */
+    static int[] intersect(List<PostingList> lists, LivePositions live) {
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+        PostingList shortest = lists.get(0);
+        int[] cursors = new int[lists.size()];
+        int[] positions = new int[shortest.size];
+        int count = 0;
+
+        for (int i = 0; i < shortest.size; i++) {
+            int id = shortest.ids[i];
+            if (live.isLive(id) && isInAll(lists, cursors, id)) {
+                positions[count++] = live.positionOf(id);
+            }
+        }
+        return Arrays.copyOf(positions, count);
+    }
+
+    private static boolean isInAll(List<PostingList> lists, int[] cursors, int id) {
+        for (int k = 1; k < lists.size(); k++) {
+            PostingList list = lists.get(k);
+            cursors[k] = list.seek(cursors[k], id);
+            if (cursors[k] == list.size || list.ids[cursors[k]] != id) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,273 @@
+package duke;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps the task list in fixed-size segment files listed, in order, by a manifest.
+ * A batch of mutations rewrites only the segments it touches. Deletes shrink a segment
+ * instead of shifting every later task, so the manifest records how many tasks each
+ * segment holds; small neighbouring segments are merged a pair at a time as later
+ * batches are written, keeping that work bounded. Inserts grow a segment in place, and one
+ * that grows past the segment size is split in two.
+ *
+ * <p>Rewritten segments always get a new file name and the manifest is replaced last,
+ * so a crash at any point leaves the previous manifest and all its segments intact.</p>
+ */
+public class ShardedStore {
+    public static final int DEFAULT_SEGMENT_SIZE = 4096;
+
+    private static final String MANIFEST_NAME = "manifest";
+    private static final String MANIFEST_HEADER = "# bosh segments v1";
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Storage storage;
+    private final Path dir;
+    private final int segmentSize;
+
+    private List<Segment> segments = new ArrayList<>();
+    private long nextFileNumber = 1;
+
+    /**
+     * Creates a sharded store.
+     *
+     * @param storage storage that encodes, decodes and writes the segment files
+     * @param dir directory holding the manifest and segment files
+     * @param segmentSize number of tasks per full segment
+     */
+    public ShardedStore(Storage storage, Path dir, int segmentSize) {
+        this.storage = storage;
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Returns whether a manifest has been written.
+     */
+    public boolean exists() {
+        return Files.exists(dir.resolve(MANIFEST_NAME));
+    }
+
+    /**
+     * Loads every segment listed in the manifest, in order.
+     *
+     * @return all tasks
+     * @throws IOException if the manifest or a segment cannot be read
+     */
+    public List<Task> load() throws IOException {
+        List<Segment> loaded = new ArrayList<>();
+        List<Task> tasks = new ArrayList<>();
+
+        for (String line : Files.readAllLines(dir.resolve(MANIFEST_NAME), StandardCharsets.UTF_8)) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String fileName = line.substring(0, line.indexOf(' '));
+            List<Task> segmentTasks = storage.readTasks(dir.resolve(fileName));
+            tasks.addAll(segmentTasks);
+            loaded.add(new Segment(fileName, segmentTasks.size()));
+            nextFileNumber = Math.max(nextFileNumber, fileNumber(fileName) + 1);
+        }
+
+        segments = loaded;
+        deleteUnlistedFiles();
+        return tasks;
+    }
+
+    /**
+     * Rewrites the whole list as evenly filled segments, e.g. after a sort.
+     *
+     * @param tasks complete task list
+     * @throws IOException if a segment or the manifest cannot be written
+     */
+    public void saveAll(List<Task> tasks) throws IOException {
+        List<Segment> working = new ArrayList<>();
+        for (int start = 0; start < tasks.size(); start += segmentSize) {
+            Segment segment = new Segment(null, Math.min(segmentSize, tasks.size() - start));
+            segment.isDirty = true;
+            working.add(segment);
+        }
+        commit(tasks, working);
+    }
+
+    /**
+     * Applies a batch of mutations, rewriting only the segments they touch.
+     *
+     * @param tasks task list after every mutation in the batch was applied
+     * @param batch mutations in the order they were applied
+     * @throws IOException if a segment or the manifest cannot be written
+     */
+    public void apply(List<Task> tasks, List<Mutation> batch) throws IOException {
+        List<Segment> working = new ArrayList<>();
+        for (Segment segment : segments) {
+            working.add(new Segment(segment.fileName, segment.count));
+        }
+
+        for (Mutation mutation : batch) {
+            switch (mutation.getKind()) {
+                case ADD:
+                    appendOne(working);
+                    break;
+                case INSERT:
+                    insertOne(working, mutation.getIndex());
+                    break;
+                case DELETE:
+                    Segment shrunk = locate(working, mutation.getIndex());
+                    shrunk.count--;
+                    shrunk.isDirty = true;
+                    break;
+                default:
+                    locate(working, mutation.getIndex()).isDirty = true;
+            }
+        }
+
+        working.removeIf(segment -> segment.count == 0);
+        mergeOneSmallPair(working);
+        commit(tasks, working);
+    }
+
+    // ========== Private Methods ==========
+
+    private void appendOne(List<Segment> working) {
+        Segment last = working.isEmpty() ? null : working.get(working.size() - 1);
+        if (last == null || last.count >= segmentSize) {
+            last = new Segment(null, 0);
+            working.add(last);
+        }
+        last.count++;
+        last.isDirty = true;
+    }
+
+    /**
+     * Grows the segment that holds the given position, or the last one if the task goes at the end.
+     * A segment that no longer fits is split into two halves.
+     */
+    private void insertOne(List<Segment> working, int index) {
+        int total = 0;
+        for (Segment segment : working) {
+            total += segment.count;
+        }
+        if (index >= total) {
+            appendOne(working);
+            return;
+        }
+        Segment grown = locate(working, index);
+        grown.count++;
+        grown.isDirty = true;
+        if (grown.count > segmentSize) {
+            Segment secondHalf = new Segment(null, grown.count / 2);
+            secondHalf.isDirty = true;
+            grown.count -= secondHalf.count;
+            working.add(working.indexOf(grown) + 1, secondHalf);
+        }
+    }
+
+    /**
+     * Finds the segment holding the task at the given position.
+     */
+    private Segment locate(List<Segment> working, int index) {
+        int start = 0;
+        for (Segment segment : working) {
+            if (index < start + segment.count) {
+                return segment;
+            }
+            start += segment.count;
+        }
+        throw new IndexOutOfBoundsException("No segment holds task " + index);
+    }
+
+    /**
+     * Merges the first pair of neighbouring segments where one has shrunk below
+     * half the segment size and both fit into one segment.
+     */
+    private void mergeOneSmallPair(List<Segment> working) {
+        for (int i = 0; i + 1 < working.size(); i++) {
+            Segment left = working.get(i);
+            Segment right = working.get(i + 1);
+            boolean isSmall = left.count < segmentSize / 2 || right.count < segmentSize / 2;
+            if (isSmall && left.count + right.count <= segmentSize) {
+                Segment merged = new Segment(null, left.count + right.count);
+                merged.isDirty = true;
+                working.set(i, merged);
+                working.remove(i + 1);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writes dirty segments under new names, then the manifest, then removes replaced files.
+     */
+    private void commit(List<Task> tasks, List<Segment> working) throws IOException {
+        Files.createDirectories(dir);
+
+        int start = 0;
+        for (Segment segment : working) {
+            if (segment.isDirty) {
+                String fileName = SEGMENT_PREFIX + String.format("%09d", nextFileNumber++) + SEGMENT_SUFFIX;
+                List<Task> slice = tasks.subList(start, start + segment.count);
+                storage.writeAtomically(dir.resolve(fileName), storage.encodeTasks(slice));
+                segment.fileName = fileName;
+                segment.isDirty = false;
+            }
+            start += segment.count;
+        }
+
+        StringBuilder manifest = new StringBuilder(MANIFEST_HEADER).append('\n');
+        for (Segment segment : working) {
+            manifest.append(segment.fileName).append(' ').append(segment.count).append('\n');
+        }
+        storage.writeAtomically(dir.resolve(MANIFEST_NAME), manifest.toString().getBytes(StandardCharsets.UTF_8));
+
+        segments = working;
+        deleteUnlistedFiles();
+    }
+
+    /**
+     * Removes segment files the manifest no longer lists, including leftovers of an interrupted write.
+     */
+    private void deleteUnlistedFiles() throws IOException {
+        Set<String> listed = new HashSet<>();
+        for (Segment segment : segments) {
+            listed.add(segment.fileName);
+        }
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, SEGMENT_PREFIX + "*")) {
+            for (Path path : files) {
+                if (!listed.contains(path.getFileName().toString())) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    private static long fileNumber(String fileName) {
+        try {
+            return Long.parseLong(fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length()));
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * A segment file and the number of tasks it holds.
+     */
+    private static class Segment {
+        private String fileName;
+        private int count;
+        private boolean isDirty;
+
+        Segment(String fileName, int count) {
+            this.fileName = fileName;
+            this.count = count;
+        }
+    }
+}
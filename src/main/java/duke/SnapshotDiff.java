@@ -0,0 +1,171 @@
+package duke;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The difference between two versions of a text snapshot, as one run of tasks replaced by another.
+ * Versions are compared by a hash of each task line, so only the lines between the longest
+ * unchanged prefix and suffix are parsed. Appends, edits and deletes made by a single
+ * command each touch one such run.
+ */
+public class SnapshotDiff {
+    private static final int MAX_FIELD_SLOTS = 10;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final int start;
+    private final int removedCount;
+    private final List<Task> added;
+    private final long[] lineHashes;
+
+    private SnapshotDiff(int start, int removedCount, List<Task> added, long[] lineHashes) {
+        this.start = start;
+        this.removedCount = removedCount;
+        this.added = added;
+        this.lineHashes = lineHashes;
+    }
+
+    /**
+     * Hashes every task line of a text snapshot, in order. Blank and invalid lines are left out,
+     * so position {@code i} belongs to the {@code i}-th loaded task.
+     *
+     * @param bytes snapshot content
+     * @return one hash per task line
+     */
+    public static long[] hashLines(byte[] bytes) {
+        return new Lines(bytes).hashes;
+    }
+
+    /**
+     * Compares a new snapshot with the line hashes of the previous one.
+     *
+     * @param oldHashes line hashes of the previous snapshot
+     * @param newBytes content of the new snapshot
+     * @return the changed run, which is empty if the task lines are the same
+     */
+    public static SnapshotDiff between(long[] oldHashes, byte[] newBytes) {
+        Lines lines = new Lines(newBytes);
+        long[] newHashes = lines.hashes;
+
+        int prefix = 0;
+        int maxPrefix = Math.min(oldHashes.length, newHashes.length);
+        while (prefix < maxPrefix && oldHashes[prefix] == newHashes[prefix]) {
+            prefix++;
+        }
+        int suffix = 0;
+        int maxSuffix = maxPrefix - prefix;
+        while (suffix < maxSuffix
+                && oldHashes[oldHashes.length - 1 - suffix] == newHashes[newHashes.length - 1 - suffix]) {
+            suffix++;
+        }
+
+        List<Task> added = new ArrayList<>();
+        for (int i = prefix; i < newHashes.length - suffix; i++) {
+            added.add(TaskFileReader.parseLine(newBytes, lines.starts[i], lines.ends[i]));
+        }
+        return new SnapshotDiff(prefix, oldHashes.length - suffix - prefix, added, newHashes);
+    }
+
+    /**
+     * Describes a snapshot that cannot be compared line by line, such as a binary one,
+     * as a replacement of every task.
+     *
+     * @param oldCount number of tasks in the previous version
+     * @param tasks every task of the new version
+     * @param lineHashes line hashes of the new version in the text format
+     */
+    public static SnapshotDiff replacingAll(int oldCount, List<Task> tasks, long[] lineHashes) {
+        return new SnapshotDiff(0, oldCount, tasks, lineHashes);
+    }
+
+    /**
+     * Returns whether the task lines are unchanged.
+     */
+    public boolean isEmpty() {
+        return removedCount == 0 && added.isEmpty();
+    }
+
+    /**
+     * Returns the 0-based position of the first changed task.
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * Returns how many tasks from {@link #getStart()} on were replaced.
+     */
+    public int getRemovedCount() {
+        return removedCount;
+    }
+
+    /**
+     * Returns the tasks that take the place of the removed ones.
+     */
+    public List<Task> getAdded() {
+        return added;
+    }
+
+    /**
+     * Returns the line hashes of the new snapshot, to compare the next version with.
+     */
+    public long[] getLineHashes() {
+        return lineHashes;
+    }
+
+    /**
+     * Applies the change to a list holding the previous version's tasks.
+     *
+     * @param tasks list to update in place
+     */
+    public void applyTo(List<Task> tasks) {
+        tasks.subList(start, start + removedCount).clear();
+        tasks.addAll(start, added);
+    }
+
+    /**
+     * Bounds and hashes of the task lines in a snapshot.
+     */
+    private static class Lines {
+        private int[] starts = new int[16];
+        private int[] ends = new int[16];
+        private long[] hashes = new long[16];
+
+        Lines(byte[] bytes) {
+            int[] fields = new int[MAX_FIELD_SLOTS];
+            int count = 0;
+            int lineStart = 0;
+            for (int i = 0; i <= bytes.length; i++) {
+                if (i < bytes.length && bytes[i] != '\n') {
+                    continue;
+                }
+
+                int start = TaskFileReader.skipWhitespace(bytes, lineStart, i);
+                int end = TaskFileReader.trimWhitespace(bytes, start, i);
+                if (start < end && TaskFileReader.isValidLine(bytes, start, end, fields)) {
+                    if (count == starts.length) {
+                        starts = Arrays.copyOf(starts, count * 2);
+                        ends = Arrays.copyOf(ends, count * 2);
+                        hashes = Arrays.copyOf(hashes, count * 2);
+                    }
+                    starts[count] = start;
+                    ends[count] = end;
+                    hashes[count] = hash(bytes, start, end);
+                    count++;
+                }
+                lineStart = i + 1;
+            }
+            hashes = Arrays.copyOf(hashes, count);
+        }
+
+        private static long hash(byte[] bytes, int start, int end) {
+            long hash = FNV_OFFSET;
+            for (int i = start; i < end; i++) {
+                hash = (hash ^ bytes[i]) * FNV_PRIME;
+            }
+            return hash;
+        }
+    }
+}
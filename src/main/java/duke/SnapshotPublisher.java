@@ -0,0 +1,103 @@
+package duke;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Publishes immutable snapshots of the task list for readers that must not wait for a change.
+ *
+ * <p>A snapshot is a directory of fixed-size chunks. Publishing after a change copies only the
+ * chunks the change touched and shares every other chunk with the previous snapshot, so a mark
+ * or an add costs one chunk and the directory rather than a copy of the whole list. A change that
+ * shifts later tasks, such as a delete, touches every chunk from its position on, and a chunk
+ * whose length changed is always copied, which covers tasks added at the end. The owner reports
+ * each change before publishing; chunks of a compact list are copied without building tasks.</p>
+ */
+public class SnapshotPublisher {
+    public static final int CHUNK_SIZE = 1024;
+
+    private List<List<Task>> chunks = new ArrayList<>();
+    private final BitSet changedChunks = new BitSet();
+    private int shiftedFrom = Integer.MAX_VALUE;
+
+    /**
+     * Notes that the task at the given position was replaced.
+     */
+    public void changed(int position) {
+        changedChunks.set(position / CHUNK_SIZE);
+    }
+
+    /**
+     * Notes that the tasks from the given position on moved, e.g. after a delete there.
+     */
+    public void shifted(int position) {
+        shiftedFrom = Math.min(shiftedFrom, position);
+    }
+
+    /**
+     * Notes that any task may have changed or moved, e.g. after a sort.
+     */
+    public void changedAll() {
+        shiftedFrom = 0;
+    }
+
+    /**
+     * Builds a snapshot of the list as it is now, sharing the chunks no change was noted in.
+     *
+     * @param tasks the list, with every change since the last snapshot noted
+     * @return an unmodifiable list that later changes to {@code tasks} do not affect
+     */
+    public List<Task> publish(List<Task> tasks) {
+        int size = tasks.size();
+        int count = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        List<List<Task>> next = new ArrayList<>(count);
+        for (int k = 0; k < count; k++) {
+            int from = k * CHUNK_SIZE;
+            int to = Math.min(from + CHUNK_SIZE, size);
+            boolean isUnchanged = k < chunks.size() && !changedChunks.get(k) && to <= shiftedFrom
+                    && chunks.get(k).size() == to - from;
+            next.add(isUnchanged ? chunks.get(k) : copyRange(tasks, from, to));
+        }
+
+        chunks = next;
+        changedChunks.clear();
+        shiftedFrom = Integer.MAX_VALUE;
+        return new Snapshot(next, size);
+    }
+
+    private static List<Task> copyRange(List<Task> tasks, int from, int to) {
+        if (tasks instanceof CompactTaskList) {
+            return ((CompactTaskList) tasks).copyRange(from, to);
+        }
+        return List.copyOf(tasks.subList(from, to));
+    }
+
+    /**
+     * A published snapshot: the chunks read as one list.
+     */
+    private static class Snapshot extends AbstractList<Task> implements RandomAccess {
+        private final List<List<Task>> chunks;
+        private final int size;
+
+        Snapshot(List<List<Task>> chunks, int size) {
+            this.chunks = chunks;
+            this.size = size;
+        }
+
+        @Override
+        public Task get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return chunks.get(index / CHUNK_SIZE).get(index % CHUNK_SIZE);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package duke;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The values a task is sorted by, worked out once per task instead of once per comparison.
+ * Keys compare by a primary number, then by a normalised text that is compared with plain
+ * {@link String#compareTo}. A key does not refer to its task, so keys kept in a sorted view
+ * do not keep the tasks of a compact list alive.
+ *
+ * <p>The orderings match the comparators {@code TaskList} used to build per comparison,
+ * with one exception: those compared a date-only deadline as equal to every timed deadline
+ * on the same day, which is not a consistent order. Here a date-only deadline comes
+ * before the timed deadlines of its day.</p>
+ */
+public class SortKey {
+    /** Lists at least this long are sorted on all cores. */
+    public static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    static final Comparator<SortKey> ORDER = (k1, k2) -> {
+        if (k1.primary != k2.primary) {
+            return Long.compare(k1.primary, k2.primary);
+        }
+        if (k1.text == null || k2.text == null) {
+            return 0; // ties on the primary value alone keep their order
+        }
+        return k1.text.compareTo(k2.text);
+    };
+
+    private static final long SECONDS_PER_DAY_SLOT = LocalTime.MAX.toSecondOfDay() + 2L;
+
+    private final long primary;
+    private final String text;
+    private int position; // where the task was before sorting
+
+    private SortKey(long primary, String text) {
+        this.primary = primary;
+        this.text = text;
+    }
+
+    /**
+     * Sorts the list in place by the given keys. The sort is stable, so tasks with equal
+     * keys keep their order.
+     *
+     * @param tasks list to sort
+     * @param keyOf builds a task's key
+     * @return for each position, the position its task had before sorting
+     */
+    public static int[] sort(List<Task> tasks, Function<Task, SortKey> keyOf) {
+        Task[] unsorted = new Task[tasks.size()];
+        SortKey[] keys = new SortKey[unsorted.length];
+        for (int i = 0; i < keys.length; i++) {
+            unsorted[i] = tasks.get(i);
+            keys[i] = keyOf.apply(unsorted[i]);
+            keys[i].position = i;
+        }
+
+        if (keys.length >= PARALLEL_THRESHOLD) {
+            Arrays.parallelSort(keys, ORDER);
+        } else {
+            Arrays.sort(keys, ORDER);
+        }
+
+        int[] previousPositions = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            previousPositions[i] = keys[i].position;
+            tasks.set(i, unsorted[previousPositions[i]]);
+        }
+        return previousPositions;
+    }
+
+    // ========== Key Factories ==========
+
+    /**
+     * Orders by description, ignoring case.
+     */
+    public static SortKey byDescription(Task task) {
+        return new SortKey(0, task.getDescription().toLowerCase());
+    }
+
+    /**
+     * Orders by type (todos, deadlines, events), then by description ignoring case.
+     */
+    public static SortKey byType(Task task) {
+        return new SortKey(getTypePriority(task), foldCase(task.getDescription()));
+    }
+
+    /**
+     * Orders deadlines with a date by their date, earliest first, followed by every other
+     * task ordered by description ignoring case. Deadlines due at the same moment keep their order.
+     */
+    public static SortKey byDeadline(Task task) {
+        long due = dueKey(task);
+        return due != Long.MAX_VALUE ? new SortKey(due, null)
+                : new SortKey(Long.MAX_VALUE, foldCase(task.getDescription()));
+    }
+
+    /**
+     * Orders incomplete tasks first, then by description ignoring case.
+     */
+    public static SortKey byStatus(Task task) {
+        return new SortKey(task.isDone ? 1 : 0, foldCase(task.getDescription()));
+    }
+
+    // ========== Due Keys ==========
+
+    /**
+     * Returns the number {@link #byDeadline} orders a task by: deadlines with a date map to
+     * increasing numbers, a date-only deadline sitting just before the timed deadlines of its day.
+     *
+     * @param task task to key
+     * @return due key, or {@code Long.MAX_VALUE} if the task is not a deadline with a date
+     */
+    static long dueKey(Task task) {
+        if (task instanceof Deadline) {
+            Deadline deadline = (Deadline) task;
+            if (deadline.dateTime != null) {
+                return dueKey(deadline.dateTime);
+            }
+            if (deadline.date != null) {
+                return startOfDay(deadline.date);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns the due key of a deadline at the given moment.
+     */
+    static long dueKey(LocalDateTime dateTime) {
+        return startOfDay(dateTime.toLocalDate()) + dateTime.toLocalTime().toSecondOfDay() + 1L;
+    }
+
+    /**
+     * Returns the due key of a date-only deadline on the given day, which is the lowest key of that day.
+     */
+    static long startOfDay(LocalDate day) {
+        return day.toEpochDay() * SECONDS_PER_DAY_SLOT;
+    }
+
+    /**
+     * Returns the day a due key falls on.
+     */
+    static LocalDate dayOf(long due) {
+        return LocalDate.ofEpochDay(Math.floorDiv(due, SECONDS_PER_DAY_SLOT));
+    }
+
+    // ========== Private Methods ==========
+
+    /**
+     * Gets the priority value for task type ordering.
+     */
+    private static int getTypePriority(Task task) {
+        if (task instanceof Todo) return 1;
+        if (task instanceof Deadline) return 2;
+        if (task instanceof Event) return 3;
+        return 4; // Unknown types come last
+    }
+
+    /**
+     * Maps every character the way {@link String#compareToIgnoreCase} compares it, so that
+     * plain comparison of the results orders strings exactly as that method does.
+     */
+    static String foldCase(String s) {
+        char[] chars = s.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+}
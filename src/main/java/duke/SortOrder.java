@@ -0,0 +1,32 @@
+package duke;
+
+import java.util.function.Function;
+
+/**
+ * The orders tasks can be sorted or listed in.
+ */
+public enum SortOrder {
+    DESCRIPTION("description", SortKey::byDescription),
+    TYPE("type", SortKey::byType),
+    DEADLINE("deadline", SortKey::byDeadline),
+    STATUS("status", SortKey::byStatus);
+
+    private final String name;
+    private final Function<Task, SortKey> keyOf;
+
+    SortOrder(String name, Function<Task, SortKey> keyOf) {
+        this.name = name;
+        this.keyOf = keyOf;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Builds the key a task is ordered by.
+     */
+    public SortKey keyOf(Task task) {
+        return keyOf.apply(task);
+    }
+}
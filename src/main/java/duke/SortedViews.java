@@ -0,0 +1,149 @@
+package duke;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Orderings of the task list by each {@link SortOrder}, kept up to date as tasks are added,
+ * changed and deleted, so a sorted listing needs no sort and leaves the list itself alone.
+ *
+ * <p>Each ordering is a tree of (key, id) entries, where ids grow with list position
+ * (see {@link LivePositions}) and break ties in list order, as a stable sort would.
+ * An ordering is only built the first time it is asked for. Changes that reorder the
+ * list itself are not tracked: the owner discards the views and builds new ones when next needed.</p>
+ */
+public class SortedViews {
+    private final LivePositions live = new LivePositions();
+    private final Map<SortOrder, View> views = new EnumMap<>(SortOrder.class);
+    private int size;
+
+    /**
+     * Creates views of a list whose tasks are numbered by their current positions.
+     *
+     * @param size number of tasks in the list
+     */
+    public SortedViews(int size) {
+        for (int i = 0; i < size; i++) {
+            live.append();
+        }
+        this.size = size;
+    }
+
+    /**
+     * Adds a task appended at the end of the list.
+     *
+     * @param task the new task
+     */
+    public void append(Task task) {
+        int id = live.append();
+        size++;
+        for (View view : views.values()) {
+            view.add(id, task);
+        }
+    }
+
+    /**
+     * Removes the task at the given position; later tasks move up by one.
+     *
+     * @param position 0-based position of the removed task
+     */
+    public void remove(int position) {
+        int id = live.idAt(position);
+        live.remove(position);
+        size--;
+        for (View view : views.values()) {
+            view.remove(id);
+        }
+    }
+
+    /**
+     * Re-files a task whose sort values (e.g. its status) changed.
+     *
+     * @param position 0-based position of the task
+     * @param task the task as it is now
+     */
+    public void update(int position, Task task) {
+        int id = live.idAt(position);
+        for (View view : views.values()) {
+            view.remove(id);
+            view.add(id, task);
+        }
+    }
+
+    /**
+     * Returns whether enough tasks were deleted that rebuilding would make the views noticeably cheaper.
+     */
+    public boolean isWorthRebuilding() {
+        return live.isWorthRebuilding();
+    }
+
+    /**
+     * Returns the list positions in the given order.
+     *
+     * @param order order to list in
+     * @param tasks the list these views follow, read only to build an ordering for the first time
+     * @return 0-based positions of every task, in that order
+     */
+    public int[] positionsIn(SortOrder order, List<Task> tasks) {
+        assert tasks.size() == size : "Views are out of step with the list";
+
+        View view = views.get(order);
+        if (view == null) {
+            view = new View(order);
+            for (int position = 0; position < tasks.size(); position++) {
+                view.add(live.idAt(position), tasks.get(position));
+            }
+            views.put(order, view);
+        }
+
+        int[] positions = new int[size];
+        int i = 0;
+        for (Entry entry : view.entries) {
+            positions[i++] = live.positionOf(entry.id);
+        }
+        return positions;
+    }
+
+    /**
+     * One ordering, with each id's entry so it can be found again after the task changed.
+     */
+    private static class View {
+        private final SortOrder order;
+        private final TreeSet<Entry> entries = new TreeSet<>((e1, e2) -> {
+            int byKey = SortKey.ORDER.compare(e1.key, e2.key);
+            return byKey != 0 ? byKey : Integer.compare(e1.id, e2.id);
+        });
+        private Entry[] byId = new Entry[16];
+
+        View(SortOrder order) {
+            this.order = order;
+        }
+
+        void add(int id, Task task) {
+            if (id >= byId.length) {
+                byId = Arrays.copyOf(byId, Math.max(id + 1, byId.length * 2));
+            }
+            Entry entry = new Entry(order.keyOf(task), id);
+            byId[id] = entry;
+            entries.add(entry);
+        }
+
+        void remove(int id) {
+            entries.remove(byId[id]);
+            byId[id] = null;
+        }
+    }
+
+    private static class Entry {
+        private final SortKey key;
+        private final int id;
+
+        Entry(SortKey key, int id) {
+            this.key = key;
+            this.id = id;
+        }
+    }
+}
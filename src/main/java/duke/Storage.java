@@ -1,19 +1,214 @@
 package duke;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.zip.CRC32;
 
 /**
  * Handles loading tasks from disk and saving tasks to disk using a simple line format.
  * Ensures the data directory exists and tolerates a missing file on first run.
+ * In journaled mode, single-task changes are appended to a log next to the data file
+ * and folded back into a fresh snapshot once the log grows past a threshold.
+ * Snapshots can be written in the pipe-delimited text format or in {@link BinaryTaskFormat};
+ * loading detects which one a file uses. Snapshots are written to a temporary file and
+ * renamed over the data file; how eagerly writes are forced to disk follows a {@link Durability} mode.
+ * Completed tasks can be moved to a compressed {@link Archive} next to the data file, which is not loaded.
  */
 public class Storage {
-    private final Path dir = Paths.get("data");
-    private final Path file = dir.resolve("bosh.txt");
+    private static final long DEFAULT_COMPACTION_THRESHOLD = 1024 * 1024;
+    private static final int MAX_REPORTED_LINES = 10;
+    private static final long DEFAULT_SYNC_INTERVAL_MILLIS = 1000;
+
+    private final Path dir;
+    private final Path file;
+    private Journal journal;
+    private boolean isJournalRepaired = true;
+    private long compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+    private long snapshotChecksum;
+    private boolean isBinary;
+    private List<Integer> skippedLines = List.of();
+    private long parallelLoadThreshold = TaskFileReader.DEFAULT_PARALLEL_THRESHOLD;
+    private boolean isLazy;
+    private boolean isColumnar;
+    private FileSyncer syncer = new FileSyncer(Durability.PERIODIC, DEFAULT_SYNC_INTERVAL_MILLIS);
+    private ShardedStore shards;
+    private final Archive archive;
+    private DataFileLock fileLock;
+    private long[] lineHashes = new long[0];
+    private BasicFileAttributes lastSeen; // of the data file when last read or written, null if it was missing
+
+    /**
+     * Creates storage for {@code data/bosh.txt}.
+     * Journaling is enabled with {@code -Dbosh.journal=true}; the compaction threshold
+     * in bytes can be tuned with {@code -Dbosh.journal.compactBytes}.
+     * {@code -Dbosh.format=binary} saves snapshots in the binary format, and
+     * {@code -Dbosh.load.parallelBytes} sets the text file size from which loading runs in parallel.
+     * {@code -Dbosh.lazy=true} maps text snapshots instead of loading every task up front.
+     * {@code -Dbosh.columnar=true} keeps loaded tasks in a {@link ColumnarTaskList}.
+     * {@code -Dbosh.durability=fsync-every-write|periodic|none} picks the {@link Durability} mode
+     * (default periodic), with the periodic interval set by {@code -Dbosh.durability.intervalMs}.
+     * {@code -Dbosh.layout=sharded} splits the list into segments of {@code -Dbosh.segmentSize} tasks.
+     * {@code -Dbosh.watch=true} prepares the file to be shared with other running instances.
+     */
+    public Storage() {
+        this(Paths.get("data", "bosh.txt"));
+        setBinary("binary".equalsIgnoreCase(System.getProperty("bosh.format")));
+        setParallelLoadThreshold(Long.getLong("bosh.load.parallelBytes", TaskFileReader.DEFAULT_PARALLEL_THRESHOLD));
+        setLazy(Boolean.getBoolean("bosh.lazy"));
+        setColumnar(Boolean.getBoolean("bosh.columnar"));
+        setDurability(Durability.fromName(System.getProperty("bosh.durability", Durability.PERIODIC.getName())),
+                Long.getLong("bosh.durability.intervalMs", DEFAULT_SYNC_INTERVAL_MILLIS));
+        if (Boolean.getBoolean("bosh.journal")) {
+            enableJournal(Long.getLong("bosh.journal.compactBytes", DEFAULT_COMPACTION_THRESHOLD));
+        }
+        if ("sharded".equalsIgnoreCase(System.getProperty("bosh.layout"))) {
+            enableSharding(Integer.getInteger("bosh.segmentSize", ShardedStore.DEFAULT_SEGMENT_SIZE));
+        } else if (Boolean.getBoolean("bosh.watch")) {
+            enableWatching();
+        }
+    }
+
+    /**
+     * Creates storage backed by the given data file.
+     *
+     * @param file path of the snapshot file
+     */
+    public Storage(Path file) {
+        this.file = file;
+        this.dir = file.toAbsolutePath().getParent();
+        this.archive = new Archive(file.resolveSibling(file.getFileName() + ".archive"));
+    }
+
+    /**
+     * Switches to journaled mode: mutations are appended to a log next to the data file.
+     *
+     * @param compactionThreshold log size in bytes after which a fresh snapshot is written
+     */
+    public void enableJournal(long compactionThreshold) {
+        this.journal = new Journal(file.resolveSibling(file.getFileName() + ".journal"));
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Switches to reading the journal without changing it, for tools that only read another
+     * instance's files: loading replays the records that apply but leaves a stale or torn log
+     * as it is. Saving with this storage is not supported.
+     */
+    public void enableReadOnlyJournal() {
+        enableJournal(Long.MAX_VALUE);
+        this.isJournalRepaired = false;
+    }
+
+    /**
+     * Switches to sharded mode: tasks are kept in fixed-size segment files listed by a
+     * manifest, and a change rewrites only the segments it touches. Takes precedence
+     * over the journal. An existing single data file is split up on the next load.
+     *
+     * @param segmentSize number of tasks per segment
+     */
+    public void enableSharding(int segmentSize) {
+        this.shards = new ShardedStore(this, file.resolveSibling(file.getFileName() + ".segments"), segmentSize);
+    }
+
+    /**
+     * Prepares the data file to be shared with other running instances: reads and writes take
+     * an advisory lock, every change is written as a full text snapshot, and
+     * {@link #readChanges()} reports what another instance changed. Must be called before
+     * {@link #load()}; it turns the journal and the binary format off. A shared file is read
+     * into memory in full to track its lines, so it is parsed up front rather than mapped lazily.
+     *
+     * @throws IllegalStateException if the sharded layout is in use
+     */
+    public void enableWatching() {
+        if (shards != null) {
+            throw new IllegalStateException("The sharded layout cannot be shared between instances");
+        }
+        this.journal = null;
+        this.isBinary = false;
+        this.fileLock = new DataFileLock(file.resolveSibling(file.getFileName() + ".lock"));
+    }
+
+    /**
+     * Returns whether {@link #enableWatching()} was called.
+     */
+    public boolean isWatching() {
+        return fileLock != null;
+    }
+
+    /**
+     * Returns the path of the data file.
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Chooses the format used when saving. Loading always detects the format.
+     *
+     * @param isBinary true to save in the binary format, false for the text format
+     */
+    public void setBinary(boolean isBinary) {
+        this.isBinary = isBinary;
+    }
+
+    /**
+     * Sets the text file size from which loading splits the file into chunks
+     * parsed in parallel; smaller files are parsed sequentially.
+     *
+     * @param bytes size threshold in bytes
+     */
+    public void setParallelLoadThreshold(long bytes) {
+        this.parallelLoadThreshold = bytes;
+    }
+
+    /**
+     * Chooses whether {@link #load()} returns a {@link MappedTaskList} for text snapshots,
+     * building each task only when it is accessed.
+     *
+     * @param isLazy true to map the snapshot instead of parsing it up front
+     */
+    public void setLazy(boolean isLazy) {
+        this.isLazy = isLazy;
+    }
+
+    /**
+     * Chooses whether {@link #load()} returns a {@link ColumnarTaskList}, which takes a fraction
+     * of the memory of one object per task. Tasks are still parsed one by one while loading.
+     * A lazily mapped snapshot is compact already and is returned as it is.
+     *
+     * @param isColumnar true to store loaded tasks in columns
+     */
+    public void setColumnar(boolean isColumnar) {
+        this.isColumnar = isColumnar;
+    }
+
+    /**
+     * Chooses how eagerly writes are forced to disk.
+     *
+     * @param durability durability mode
+     * @param intervalMillis longest a write may stay unforced in periodic mode
+     */
+    public void setDurability(Durability durability, long intervalMillis) {
+        syncer.flush(); // nothing written under the old mode is left behind
+        this.syncer = new FileSyncer(durability, intervalMillis);
+    }
+
+    /**
+     * Forces any writes still waiting for the periodic flush. Call before exiting.
+     */
+    public void close() {
+        syncer.flush();
+    }
 
     /**
      * Loads tasks from the data file.
@@ -25,17 +220,183 @@ public class Storage {
         if (Files.notExists(dir)) {
             Files.createDirectories(dir);
         }
+        if (fileLock != null) {
+            DataFileLock.Hold hold = fileLock.acquire();
+            try {
+                return loadSharedSnapshot();
+            } finally {
+                hold.close();
+            }
+        }
+        return loadSnapshot();
+    }
+
+    /**
+     * Locks a shared data file for a whole change, from {@link #readChanges()} to the save,
+     * so no other instance writes in between. The reads and saves made meanwhile take the
+     * lock again without waiting. Without watching, nothing is locked.
+     *
+     * @return hold to close once the change is saved
+     * @throws IOException if the lock cannot be taken
+     */
+    public DataFileLock.Hold lockForChange() throws IOException {
+        return fileLock == null ? () -> { } : fileLock.acquire();
+    }
+
+    /**
+     * Reads what another instance changed since this one last loaded or saved the data file.
+     * A file whose size, modification time and identity are as last seen is not read at all;
+     * otherwise only the tasks between the unchanged start and end of the file are parsed.
+     *
+     * @return the change, or null if the file holds what this instance last saw
+     * @throws IOException if the file cannot be read
+     * @throws IllegalStateException if watching is not enabled
+     */
+    public SnapshotDiff readChanges() throws IOException {
+        if (fileLock == null) {
+            throw new IllegalStateException("Watching is not enabled");
+        }
+
+        DataFileLock.Hold hold = fileLock.acquire();
+        try {
+            BasicFileAttributes attributes = readAttributes();
+            if (isSameFile(attributes, lastSeen)) {
+                return null; // every save replaces the file, so an unchanged one was not written to
+            }
+            lastSeen = attributes;
+
+            byte[] bytes = Files.exists(file) ? Files.readAllBytes(file) : new byte[0];
+            long fileChecksum = checksum(bytes);
+            if (fileChecksum == snapshotChecksum) {
+                return null; // our own write, or a rewrite with identical content
+            }
+            snapshotChecksum = fileChecksum;
+
+            SnapshotDiff diff;
+            if (BinaryTaskFormat.isBinary(bytes)) {
+                List<Task> tasks = BinaryTaskFormat.decode(bytes);
+                diff = SnapshotDiff.replacingAll(lineHashes.length, tasks, hashSnapshot(bytes, tasks));
+            } else {
+                diff = SnapshotDiff.between(lineHashes, bytes);
+            }
+            lineHashes = diff.getLineHashes();
+            return diff;
+        } finally {
+            hold.close();
+        }
+    }
+
+    /**
+     * Loads a data file shared with other instances, reading it once for both its tasks and
+     * the line hashes later changes are compared with.
+     */
+    private List<Task> loadSharedSnapshot() throws IOException {
+        lastSeen = readAttributes();
+        byte[] bytes = lastSeen == null ? new byte[0] : Files.readAllBytes(file);
+        List<Task> tasks;
+        if (BinaryTaskFormat.isBinary(bytes)) {
+            tasks = BinaryTaskFormat.decode(bytes);
+            skippedLines = List.of();
+        } else {
+            TaskFileReader reader = new TaskFileReader(file, parallelLoadThreshold);
+            tasks = reader.read(bytes);
+            skippedLines = reader.getSkippedLines();
+        }
+        snapshotChecksum = checksum(bytes);
+        lineHashes = hashSnapshot(bytes, tasks);
+        return toColumnsIfChosen(tasks);
+    }
+
+    /**
+     * Returns the data file's attributes, or null if it does not exist.
+     */
+    private BasicFileAttributes readAttributes() throws IOException {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns whether two readings of the data file's attributes describe the same, unchanged file.
+     * Without a file key (on some platforms) the size and modification time alone decide.
+     */
+    private static boolean isSameFile(BasicFileAttributes a, BasicFileAttributes b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return a.size() == b.size() && a.lastModifiedTime().equals(b.lastModifiedTime())
+                && Objects.equals(a.fileKey(), b.fileKey());
+    }
+
+    /**
+     * Loads the snapshot and journal, or the segments in sharded mode.
+     */
+    private List<Task> loadSnapshot() throws IOException {
+        if (shards != null && shards.exists()) {
+            skippedLines = List.of();
+            return toColumnsIfChosen(shards.load());
+        }
+
+        // A missing file is the first run, or a journal that was never compacted
+        List<Task> tasks;
         if (Files.notExists(file)) {
-            return new ArrayList<>(); // first run
+            tasks = new ArrayList<>();
+            snapshotChecksum = checksum(new byte[0]);
+            skippedLines = List.of();
+        } else if (isLazy && shards == null && !isBinaryFile(file)) {
+            MappedTaskList mappedTasks = MappedTaskList.open(file);
+            tasks = mappedTasks;
+            snapshotChecksum = mappedTasks.getChecksum();
+            skippedLines = mappedTasks.getSkippedLines();
+        } else if (isBinaryFile(file)) {
+            byte[] bytes = Files.readAllBytes(file);
+            tasks = BinaryTaskFormat.decode(bytes);
+            snapshotChecksum = checksum(bytes);
+            skippedLines = List.of();
+        } else {
+            TaskFileReader reader = new TaskFileReader(file, parallelLoadThreshold);
+            tasks = reader.read();
+            snapshotChecksum = reader.getChecksum();
+            skippedLines = reader.getSkippedLines();
         }
 
-        return Files.readAllLines(file, StandardCharsets.UTF_8)
-                .stream()
-                .map(String::trim)
-                .filter(line -> !line.isEmpty())
-                .map(this::parseTaskFromLine)
-                .filter(task -> task != null) // Filter out failed parses
-                .collect(Collectors.toList());
+        if (journal != null) {
+            replayJournal(tasks);
+        }
+        if (shards != null) {
+            shards.saveAll(tasks); // first start in sharded mode: split the single file up
+        }
+        return toColumnsIfChosen(tasks);
+    }
+
+    private List<Task> toColumnsIfChosen(List<Task> tasks) {
+        return isColumnar && !(tasks instanceof CompactTaskList) ? ColumnarTaskList.of(tasks) : tasks;
+    }
+
+    /**
+     * Returns the 1-based line numbers the last {@link #load()} could not parse and skipped.
+     */
+    public List<Integer> getSkippedLines() {
+        return skippedLines;
+    }
+
+    /**
+     * Describes the lines skipped by the last load, listing at most the first ten.
+     *
+     * @return warning message, or null if nothing was skipped
+     */
+    public String describeSkippedLines() {
+        if (skippedLines.isEmpty()) {
+            return null;
+        }
+
+        List<Integer> shown = skippedLines.subList(0, Math.min(MAX_REPORTED_LINES, skippedLines.size()));
+        String lines = shown.stream().map(String::valueOf).collect(Collectors.joining(", "));
+        int more = skippedLines.size() - shown.size();
+        return "Skipped " + skippedLines.size() + " unreadable line(s) in " + file.getFileName()
+                + ": " + lines + (more > 0 ? " and " + more + " more" : "");
     }
 
     /**
@@ -48,57 +409,324 @@ public class Storage {
         if (Files.notExists(dir)) {
             Files.createDirectories(dir);
         }
+        if (shards != null) {
+            shards.saveAll(tasks);
+            return;
+        }
+
+        byte[] bytes = encodeTasks(tasks);
+
+        if (fileLock != null) {
+            DataFileLock.Hold hold = fileLock.acquire();
+            try {
+                writeAtomically(file, bytes);
+                lastSeen = readAttributes();
+            } finally {
+                hold.close();
+            }
+            lineHashes = SnapshotDiff.hashLines(bytes);
+        } else {
+            writeAtomically(file, bytes);
+        }
+        snapshotChecksum = checksum(bytes);
 
-        List<String> lines = tasks.stream()
-                .map(this::serialize)
-                .collect(Collectors.toList());
+        if (journal != null) {
+            journal.reset();
+        }
+    }
 
-        Files.write(file, lines, StandardCharsets.UTF_8,
-                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+    /**
+     * Persists a single change. In journaled mode only the change is appended;
+     * otherwise the whole list is rewritten.
+     *
+     * @param tasks current list of tasks, after the change was applied
+     * @param mutation change to persist
+     * @throws IOException if the data cannot be written
+     */
+    public void record(List<Task> tasks, Mutation mutation) throws IOException {
+        recordAll(tasks, List.of(mutation));
     }
 
     /**
-     * Parses a single line into a Task object.
+     * Persists a batch of changes with a single write: one journal append, a rewrite
+     * of just the affected segments in sharded mode, or one full snapshot when not
+     * journaling or when the journal is due for compaction.
      *
-     * @param line the line to parse
-     * @return parsed Task or null if parsing fails
+     * @param tasks list of tasks after every change in the batch was applied;
+     *              may be null if {@link #needsTaskList()} returned false
+     * @param batch changes in the order they were applied
+     * @throws IOException if the data cannot be written
      */
-    private Task parseTaskFromLine(String line) {
+    public void recordAll(List<Task> tasks, List<Mutation> batch) throws IOException {
+        if (shards != null) {
+            shards.apply(tasks, batch);
+            return;
+        }
+        if (needsTaskList()) {
+            save(tasks);
+            return;
+        }
+
+        List<String> records = new ArrayList<>(batch.size());
+        for (Mutation mutation : batch) {
+            records.add(encode(mutation));
+        }
+        journal.append(records, snapshotChecksum, syncer);
+    }
+
+    /**
+     * Returns whether the next {@link #recordAll} call reads the task list, either to
+     * write a full snapshot or to rewrite segments, rather than only the mutations.
+     */
+    public boolean needsTaskList() throws IOException {
+        return shards != null || journal == null || journal.size() > compactionThreshold;
+    }
+
+    // ========== Archive Methods ==========
+
+    /**
+     * Appends tasks to the archive. The caller removes them from the live list afterwards,
+     * so a crash in between leaves a task in both places rather than in neither.
+     *
+     * @param tasks tasks to archive
+     * @throws IOException if the archive cannot be written
+     */
+    public void archive(List<Task> tasks) throws IOException {
+        if (Files.notExists(dir)) {
+            Files.createDirectories(dir);
+        }
+        archive.append(tasks, syncer);
+    }
+
+    /**
+     * Reads every archived task, oldest first.
+     *
+     * @return archived tasks (possibly empty)
+     * @throws IOException if the archive cannot be read
+     */
+    public List<Task> loadArchive() throws IOException {
+        return archive.load();
+    }
+
+    /**
+     * Replaces the archive's content, e.g. after tasks were restored from it.
+     *
+     * @param tasks tasks that remain archived
+     * @throws IOException if the archive cannot be written
+     */
+    public void saveArchive(List<Task> tasks) throws IOException {
+        writeAtomically(archive.getFile(), archive.encodeAll(tasks));
+    }
+
+    // ========== Private Writing Methods ==========
+
+    /**
+     * Writes a file to a temporary sibling and renames it over the target,
+     * so readers and crashes only ever see the old or the new content in full.
+     */
+    void writeAtomically(Path target, byte[] bytes) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        boolean isForced = syncer.shouldForceNow();
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (isForced) {
+                channel.force(true);
+            }
+        }
+
         try {
-            String[] parts = line.split("\\s*\\|\\s*");
-            if (parts.length < 3) {
-                return null; // Invalid format
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        if (isForced) {
+            FileSyncer.forceDirectory(target.toAbsolutePath().getParent());
+        } else {
+            syncer.forceLater(target);
+        }
+    }
+
+    // ========== Journal Methods ==========
+
+    /**
+     * Applies logged mutations on top of a freshly loaded snapshot. A log that was stale,
+     * torn or stopped by a bad record is cut back to the records that were applied, so
+     * later appends are not lost behind it.
+     */
+    private void replayJournal(List<Task> tasks) throws IOException {
+        List<String> records = journal.readRecords(snapshotChecksum);
+        int applied = 0;
+        while (applied < records.size() && applyRecord(records.get(applied), tasks)) {
+            applied++; // a bad record means nothing after it can be trusted
+        }
+        if (isJournalRepaired && (applied < records.size() || !journal.isIntact())) {
+            journal.rewrite(records.subList(0, applied), snapshotChecksum);
+        }
+    }
+
+    /**
+     * Encodes a mutation as one journal line.
+     */
+    private String encode(Mutation mutation) {
+        switch (mutation.getKind()) {
+            case ADD:
+                return "A | " + serialize(mutation.getTask());
+            case INSERT:
+                return "I | " + mutation.getIndex() + " | " + serialize(mutation.getTask());
+            case MARK:
+                return "M | " + mutation.getIndex();
+            case UNMARK:
+                return "U | " + mutation.getIndex();
+            default:
+                return "X | " + mutation.getIndex();
+        }
+    }
+
+    /**
+     * Applies one journal line to the list.
+     *
+     * @return false if the record could not be applied
+     */
+    private boolean applyRecord(String record, List<Task> tasks) {
+        if (record.length() < 4) {
+            return false;
+        }
+
+        String payload = record.substring(4);
+        if (record.charAt(0) == 'A') {
+            Task task = TaskFileReader.parseLine(payload);
+            return task != null && tasks.add(task);
+        }
+        if (record.charAt(0) == 'I') {
+            return applyInsert(payload, tasks);
+        }
+
+        try {
+            int index = Integer.parseInt(payload.trim());
+            switch (record.charAt(0)) {
+                case 'M':
+                    Task done = tasks.get(index);
+                    done.markAsDone();
+                    tasks.set(index, done); // storage-backed lists only keep tasks that are set
+                    return true;
+                case 'U':
+                    Task undone = tasks.get(index);
+                    undone.markAsUndone();
+                    tasks.set(index, undone);
+                    return true;
+                case 'X':
+                    tasks.remove(index);
+                    return true;
+                default:
+                    return false;
             }
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Applies the payload of an insert record, {@code <index> | <task line>}.
+     */
+    private boolean applyInsert(String payload, List<Task> tasks) {
+        int separator = payload.indexOf('|');
+        if (separator < 0) {
+            return false;
+        }
+        Task task = TaskFileReader.parseLine(payload.substring(separator + 1).trim());
+        if (task == null) {
+            return false;
+        }
+        try {
+            tasks.add(Integer.parseInt(payload.substring(0, separator).trim()), task);
+            return true;
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Hashes the task lines of a snapshot so the next version can be compared with it.
+     */
+    private long[] hashSnapshot(byte[] bytes, List<Task> tasks) {
+        return SnapshotDiff.hashLines(BinaryTaskFormat.isBinary(bytes) ? formatText(tasks) : bytes);
+    }
+
+    /**
+     * Computes the checksum used to tie a journal to its snapshot.
+     */
+    private static long checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
 
-            String type = parts[0];
-            boolean isDone = "1".equals(parts[1]);
-            String description = parts[2];
+    // ========== Format Methods ==========
+
+    /**
+     * Reads every task in a snapshot file of either format.
+     */
+    List<Task> readTasks(Path path) throws IOException {
+        if (isBinaryFile(path)) {
+            return BinaryTaskFormat.decode(Files.readAllBytes(path));
+        }
+        return new TaskFileReader(path, parallelLoadThreshold).read();
+    }
+
+    /**
+     * Encodes tasks in the format chosen for saving.
+     */
+    byte[] encodeTasks(List<Task> tasks) {
+        return isBinary ? BinaryTaskFormat.encode(tasks) : formatText(tasks);
+    }
 
-            Task task = createTaskFromParts(type, description, parts);
-            if (task != null && isDone) {
-                task.markAsDone();
+    /**
+     * Checks whether a file starts with the binary format's magic bytes.
+     */
+    private static boolean isBinaryFile(Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(4);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (header.hasRemaining() && channel.read(header) != -1) {
+                // keep reading until the header is complete or the file ends
             }
-            return task;
-        } catch (Exception e) {
-            // Log error in a real application
-            return null; // Skip corrupted lines
         }
+        return BinaryTaskFormat.isBinary(Arrays.copyOf(header.array(), header.position()));
     }
 
     /**
-     * Creates a task based on the parsed parts.
+     * Formats tasks in the pipe-delimited text format, one task per line.
      */
-    private Task createTaskFromParts(String type, String description, String[] parts) {
-        switch (type) {
-            case "T":
-                return new Todo(description);
-            case "D":
-                return parts.length >= 4 ? new Deadline(description, parts[3]) : null;
-            case "E":
-                return parts.length >= 5 ? new Event(description, parts[3], parts[4]) : null;
-            default:
-                return null; // Unknown task type
+    private byte[] formatText(List<Task> tasks) {
+        if (tasks instanceof MappedTaskList) {
+            return formatMappedText((MappedTaskList) tasks);
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (Task task : tasks) {
+            sb.append(serialize(task)).append(System.lineSeparator());
         }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Formats a mapped list, copying untouched lines as they are instead of building their tasks.
+     */
+    private byte[] formatMappedText(MappedTaskList tasks) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] separator = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < tasks.size(); i++) {
+            if (!tasks.writeRawLine(i, out)) {
+                out.writeBytes(serialize(tasks.get(i)).getBytes(StandardCharsets.UTF_8));
+            }
+            out.writeBytes(separator);
+        }
+        return out.toByteArray();
     }
 
     /**
@@ -110,16 +738,23 @@ public class Storage {
     private String serialize(Task t) {
         String done = t.isDone ? "1" : "0";
         if (t instanceof Todo) {
-            return String.join(" | ", "T", done, t.description);
+            return String.join(" | ", typeField("T", t), done, t.description);
         } else if (t instanceof Deadline) {
             Deadline d = (Deadline) t;
-            return String.join(" | ", "D", done, d.description, d.storageBy());
+            return String.join(" | ", typeField("D", d), done, d.description, d.storageBy());
         } else if (t instanceof Event) {
             Event e = (Event) t;
-            return String.join(" | ", "E", done, e.description, e.from, e.to);
+            return String.join(" | ", typeField("E", e), done, e.description, e.from, e.to);
         }
 
         // Fallback for unknown task types
-        return String.join(" | ", "T", done, t.description);
+        return String.join(" | ", typeField("T", t), done, t.description);
+    }
+
+    /**
+     * Writes the type letter, followed by the task's id if it has one (e.g. {@code T#12}).
+     */
+    private static String typeField(String type, Task t) {
+        return t.getId() > 0 ? type + "#" + t.getId() : type;
     }
-}
\ No newline at end of file
+}
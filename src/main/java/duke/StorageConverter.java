@@ -0,0 +1,54 @@
+package duke;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Command-line tool that converts a task file between the text and binary formats.
+ * Usage: {@code java -cp bosh.jar duke.StorageConverter <input> <output> text|binary}
+ * The input format is detected automatically; a journal next to the input is replayed first,
+ * without changing the input or its journal.
+ */
+public class StorageConverter {
+
+    public static void main(String[] args) {
+        if (args.length != 3 || !isFormat(args[2])) {
+            System.err.println("Usage: StorageConverter <input> <output> text|binary");
+            System.exit(2);
+        }
+
+        try {
+            int count = convert(Paths.get(args[0]), Paths.get(args[1]), "binary".equalsIgnoreCase(args[2]));
+            System.out.println("Converted " + count + " tasks to " + args[2].toLowerCase() + ".");
+        } catch (IOException e) {
+            System.err.println("Conversion failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Converts a task file into the requested format.
+     *
+     * @param input existing task file in either format
+     * @param output file to write
+     * @param toBinary true to write the binary format, false for the text format
+     * @return number of tasks converted
+     * @throws IOException if either file cannot be accessed
+     */
+    public static int convert(Path input, Path output, boolean toBinary) throws IOException {
+        Storage source = new Storage(input);
+        source.enableReadOnlyJournal();
+        List<Task> tasks = source.load();
+
+        Storage target = new Storage(output);
+        target.setBinary(toBinary);
+        target.save(tasks);
+        return tasks.size();
+    }
+
+    private static boolean isFormat(String s) {
+        return "text".equalsIgnoreCase(s) || "binary".equalsIgnoreCase(s);
+    }
+}
@@ -0,0 +1,92 @@
+package duke;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Canonical copies of the texts tasks repeat, such as a description that comes up again or
+ * event times like "2pm", so that each distinct text is kept once however many tasks use it.
+ *
+ * <p>The pool holds its texts weakly: once no task uses a text any more, it can be collected
+ * and the pool forgets it. Texts are spread over several independently locked maps, so a
+ * parallel load does not queue on a single lock.</p>
+ */
+public class StringPool {
+    private static final int STRIPES = 16;
+    private static final StringPool SHARED = new StringPool();
+
+    private final List<WeakHashMap<String, WeakReference<String>>> stripes = new ArrayList<>(STRIPES);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates an empty pool.
+     */
+    public StringPool() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes.add(new WeakHashMap<>());
+        }
+    }
+
+    /**
+     * Returns the pool that loading and new commands share.
+     */
+    public static StringPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the pooled text equal to the given one, adding it if there is none.
+     *
+     * @param text text to look up; may be null
+     * @return the canonical copy, or null if the text was null
+     */
+    public String canonical(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        WeakHashMap<String, WeakReference<String>> stripe = stripes.get(Math.floorMod(text.hashCode(), STRIPES));
+        synchronized (stripe) {
+            WeakReference<String> pooled = stripe.get(text);
+            String existing = pooled == null ? null : pooled.get();
+            if (existing != null) {
+                hits.increment();
+                return existing;
+            }
+            stripe.put(text, new WeakReference<>(text));
+        }
+        misses.increment();
+        return text;
+    }
+
+    /**
+     * Returns how many lookups found a text that was already pooled.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns how many lookups added a new text.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of distinct texts pooled and not yet collected.
+     */
+    public int size() {
+        int size = 0;
+        for (WeakHashMap<String, WeakReference<String>> stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+}
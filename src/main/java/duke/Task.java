@@ -2,8 +2,9 @@ package duke;
 
 public class Task {
     protected String description;
-    protected boolean isDone;
+    protected volatile boolean isDone;
     protected TaskType type;
+    protected int id; // stable across reorders and restarts; 0 until the task joins a list
 
     public Task(String description, TaskType type) {
         this.description = description;
@@ -23,10 +24,47 @@ public class Task {
         this.isDone = false;
     }
 
+    /**
+     * Returns a copy of this task with the given status. The list changes status this way
+     * instead of calling {@link #markAsDone()}, so a task another thread may be reading never changes.
+     *
+     * @param isDone status of the copy
+     * @return the copy, with the same id
+     */
+    public Task withStatus(boolean isDone) {
+        Task copy = copy();
+        copy.isDone = isDone;
+        copy.id = id;
+        return copy;
+    }
+
+    /**
+     * Creates a not-done task with the same content. Subclasses copy their own fields.
+     */
+    protected Task copy() {
+        return new Task(description, type);
+    }
+
     public String getDescription() { return description; }
 
+    public int getId() { return id; }
+
+    void setId(int id) { this.id = id; }
+
+    /**
+     * Appends how this task is shown, as in {@code [T][X] read book}, without building a string for it.
+     * Subclasses append their own details after this.
+     *
+     * @param sb buffer to append to
+     * @return the same buffer
+     */
+    public StringBuilder appendTo(StringBuilder sb) {
+        return sb.append('[').append(type.getSymbol()).append("][").append(getStatusIcon()).append("] ")
+                .append(description);
+    }
+
     @Override
     public String toString() {
-        return "[" + type.getSymbol() + "][" + getStatusIcon() + "] " + description;
+        return appendTo(new StringBuilder()).toString();
     }
 }
@@ -0,0 +1,418 @@
+package duke;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32;
+
+/**
+ * Streams tasks out of a file in the pipe-delimited text format.
+ * Lines are split on {@code |} by a hand-written scanner working directly on the
+ * UTF-8 bytes, so no per-line {@code String} or regex is created, and lines that
+ * cannot be parsed are reported by number instead of being dropped silently.
+ * Files above a size threshold are split into newline-aligned chunks that are
+ * parsed in parallel and stitched back together in file order.
+ */
+public class TaskFileReader {
+    public static final long DEFAULT_PARALLEL_THRESHOLD = 4 * 1024 * 1024;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_FIELDS = 5;
+    private static final int MAX_ID_DIGITS = 9;
+    private static final int MIN_CHUNK_SIZE = 1024 * 1024;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final Path file;
+    private final long parallelThreshold;
+    private final List<Integer> skippedLines = new ArrayList<>();
+    private final CRC32 crc = new CRC32();
+
+    public TaskFileReader(Path file) {
+        this(file, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Creates a reader that parses in parallel once the file reaches the given size.
+     *
+     * @param file file in the text format
+     * @param parallelThreshold file size in bytes from which parsing runs in parallel
+     */
+    public TaskFileReader(Path file, long parallelThreshold) {
+        this.file = file;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Reads every task in the file, in parallel if the file is large enough
+     * and more than one thread is available.
+     *
+     * @return tasks in file order
+     * @throws IOException if the file cannot be read
+     */
+    public List<Task> read() throws IOException {
+        boolean hasSpareThreads = ForkJoinPool.getCommonPoolParallelism() > 1;
+        if (hasSpareThreads && Files.size(file) >= parallelThreshold) {
+            return readParallel();
+        }
+        return readSequential();
+    }
+
+    /**
+     * Parses tasks from the file's content, already read into memory, in parallel if it is
+     * large enough and more than one thread is available.
+     *
+     * @param bytes content of the file
+     * @return tasks in file order
+     */
+    public List<Task> read(byte[] bytes) {
+        crc.update(bytes);
+        boolean hasSpareThreads = ForkJoinPool.getCommonPoolParallelism() > 1;
+        if (hasSpareThreads && bytes.length >= parallelThreshold) {
+            return parseParallel(bytes);
+        }
+        List<Task> tasks = new ArrayList<>();
+        parseLines(bytes, 0, bytes.length, true, 1, tasks, skippedLines);
+        return tasks;
+    }
+
+    /**
+     * Returns the 1-based numbers of lines that could not be parsed during {@link #read()}.
+     */
+    public List<Integer> getSkippedLines() {
+        return skippedLines;
+    }
+
+    /**
+     * Returns the CRC32 of every byte read so far.
+     */
+    public long getChecksum() {
+        return crc.getValue();
+    }
+
+    // ========== Private Reading Methods ==========
+
+    /**
+     * Streams the file through a fixed buffer on the calling thread.
+     */
+    private List<Task> readSequential() throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        byte[] bytes = new byte[BUFFER_SIZE];
+        int filled = 0;
+        int lineNumber = 1;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (true) {
+                int read = channel.read(ByteBuffer.wrap(bytes, filled, bytes.length - filled));
+                if (read > 0) {
+                    crc.update(bytes, filled, read);
+                    filled += read;
+                }
+
+                boolean isEndOfFile = read == -1;
+                int consumed = parseLines(bytes, 0, filled, isEndOfFile, lineNumber, tasks, skippedLines);
+                if (isEndOfFile) {
+                    break;
+                }
+                lineNumber += countLines(bytes, 0, consumed);
+
+                // Keep the partial last line for the next read
+                filled -= consumed;
+                System.arraycopy(bytes, consumed, bytes, 0, filled);
+                if (filled == bytes.length) {
+                    bytes = Arrays.copyOf(bytes, bytes.length * 2); // a line longer than the buffer
+                }
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Reads the file in one go, then parses newline-aligned chunks on the fork-join pool.
+     * Chunk results are concatenated in file order, so positions match a sequential load.
+     */
+    private List<Task> readParallel() throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        crc.update(bytes);
+        return parseParallel(bytes);
+    }
+
+    /**
+     * Parses newline-aligned chunks of the content on the fork-join pool.
+     */
+    private List<Task> parseParallel(byte[] bytes) {
+        List<Chunk> chunks = splitIntoChunks(bytes);
+        chunks.parallelStream().forEach(chunk -> chunk.parse(bytes));
+
+        int total = chunks.stream().mapToInt(chunk -> chunk.tasks.size()).sum();
+        List<Task> tasks = new ArrayList<>(total);
+        int lineOffset = 0;
+        for (Chunk chunk : chunks) {
+            tasks.addAll(chunk.tasks);
+            for (int line : chunk.skipped) {
+                skippedLines.add(line + lineOffset);
+            }
+            lineOffset += chunk.lineCount;
+        }
+        return tasks;
+    }
+
+    /**
+     * Cuts the content into roughly equal chunks that each end just after a newline.
+     */
+    private static List<Chunk> splitIntoChunks(byte[] bytes) {
+        int threads = ForkJoinPool.getCommonPoolParallelism();
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, bytes.length / (threads * CHUNKS_PER_THREAD));
+
+        List<Chunk> chunks = new ArrayList<>();
+        int start = 0;
+        while (start < bytes.length) {
+            int end = Math.min(bytes.length, start + chunkSize);
+            while (end < bytes.length && bytes[end - 1] != '\n') {
+                end++;
+            }
+            chunks.add(new Chunk(start, end));
+            start = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * A newline-aligned slice of the file and the result of parsing it.
+     */
+    private static class Chunk {
+        private final int start;
+        private final int end;
+        private final List<Task> tasks = new ArrayList<>();
+        private final List<Integer> skipped = new ArrayList<>();
+        private int lineCount;
+
+        Chunk(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        void parse(byte[] bytes) {
+            parseLines(bytes, start, end, true, 1, tasks, skipped);
+            lineCount = countLines(bytes, start, end);
+        }
+    }
+
+    // ========== Scanning Methods ==========
+
+    /**
+     * Parses a single line in the text format.
+     *
+     * @param line the line to parse
+     * @return parsed task, or null if the line is not a valid task
+     */
+    public static Task parseLine(String line) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        return parseLine(bytes, 0, bytes.length, new int[MAX_FIELDS * 2]);
+    }
+
+    /**
+     * Parses every complete line in {@code bytes[from, to)}.
+     * Blank lines are skipped silently; unparseable lines are recorded in {@code skipped}.
+     *
+     * @param isLast whether {@code to} is the end of the input, so a final line without
+     *               a terminating newline is complete
+     * @param firstLineNumber 1-based number of the line starting at {@code from}
+     * @return offset just past the last line consumed
+     */
+    static int parseLines(byte[] bytes, int from, int to, boolean isLast, int firstLineNumber,
+                          List<Task> tasks, List<Integer> skipped) {
+        int[] fields = new int[MAX_FIELDS * 2];
+        int lineStart = from;
+        int lineNumber = firstLineNumber;
+
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == '\n') {
+                addLine(bytes, lineStart, i, lineNumber++, fields, tasks, skipped);
+                lineStart = i + 1;
+            }
+        }
+        if (isLast && lineStart < to) {
+            addLine(bytes, lineStart, to, lineNumber, fields, tasks, skipped);
+            lineStart = to;
+        }
+        return lineStart;
+    }
+
+    private static void addLine(byte[] bytes, int start, int end, int lineNumber, int[] fields,
+                                List<Task> tasks, List<Integer> skipped) {
+        start = skipWhitespace(bytes, start, end);
+        end = trimWhitespace(bytes, start, end);
+        if (start == end) {
+            return; // blank line
+        }
+
+        Task task = parseLine(bytes, start, end, fields);
+        if (task == null) {
+            skipped.add(lineNumber);
+        } else {
+            tasks.add(task);
+        }
+    }
+
+    /**
+     * Checks whether {@code bytes[start, end)} is a structurally valid task line
+     * without creating any objects. {@code fields} is scratch space of at least 10 ints.
+     */
+    static boolean isValidLine(byte[] bytes, int start, int end, int[] fields) {
+        int count = splitFields(bytes, start, end, fields);
+        if (count < 3 || parseId(bytes, fields[0], fields[1]) < 0) {
+            return false;
+        }
+        switch (bytes[fields[0]]) {
+            case 'T':
+                return true;
+            case 'D':
+                return count >= 4;
+            case 'E':
+                return count >= 5;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Parses the line in {@code bytes[start, end)}.
+     *
+     * @return parsed task, or null if the line is not a valid task
+     */
+    static Task parseLine(byte[] bytes, int start, int end) {
+        return parseLine(bytes, start, end, new int[MAX_FIELDS * 2]);
+    }
+
+    /**
+     * Splits {@code bytes[start, end)} on {@code |} into trimmed fields.
+     * {@code fields} receives (start, end) offset pairs and is reused between lines.
+     *
+     * @return number of fields, not counting trailing empty ones
+     */
+    private static int splitFields(byte[] bytes, int start, int end, int[] fields) {
+        int count = 0;
+        int fieldStart = start;
+        for (int i = start; i <= end && count < MAX_FIELDS; i++) {
+            if (i == end || bytes[i] == '|') {
+                int s = skipWhitespace(bytes, fieldStart, i);
+                fields[count * 2] = s;
+                fields[count * 2 + 1] = trimWhitespace(bytes, s, i);
+                count++;
+                fieldStart = i + 1;
+            }
+        }
+        while (count > 0 && fields[count * 2 - 2] == fields[count * 2 - 1]) {
+            count--; // like String.split, trailing empty fields do not count
+        }
+        return count;
+    }
+
+    /**
+     * Builds a task from the line in {@code bytes[start, end)}, or returns null if it is invalid.
+     */
+    private static Task parseLine(byte[] bytes, int start, int end, int[] fields) {
+        if (!isValidLine(bytes, start, end, fields)) {
+            return null;
+        }
+
+        boolean isDone = isSingleByte(bytes, fields[2], fields[3], '1');
+        String description = pooledField(bytes, fields, 2);
+
+        Task task;
+        switch (bytes[fields[0]]) {
+            case 'D':
+                task = new Deadline(description, pooledField(bytes, fields, 3));
+                break;
+            case 'E':
+                task = new Event(description, pooledField(bytes, fields, 3), pooledField(bytes, fields, 4));
+                break;
+            default:
+                task = new Todo(description);
+        }
+
+        if (isDone) {
+            task.markAsDone();
+        }
+        task.setId(parseId(bytes, fields[0], fields[1]));
+        return task;
+    }
+
+    /**
+     * Reads the id that may follow the type letter, as in {@code T#12 | 0 | read book}.
+     *
+     * @param start offset of the type letter
+     * @param end end of the type field
+     * @return the id, 0 if the field is just the letter, or -1 if it is malformed
+     */
+    static int parseId(byte[] bytes, int start, int end) {
+        int length = end - start;
+        if (length == 1) {
+            return 0;
+        }
+        if (length < 3 || length > 2 + MAX_ID_DIGITS || bytes[start + 1] != '#') {
+            return -1;
+        }
+
+        int id = 0;
+        for (int i = start + 2; i < end; i++) {
+            if (bytes[i] < '0' || bytes[i] > '9') {
+                return -1;
+            }
+            id = id * 10 + (bytes[i] - '0');
+        }
+        return id == 0 ? -1 : id;
+    }
+
+    private static String field(byte[] bytes, int[] fields, int index) {
+        int start = fields[index * 2];
+        return new String(bytes, start, fields[index * 2 + 1] - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a field as the {@link StringPool#shared() shared pool}'s copy, so repeated text is kept once.
+     */
+    private static String pooledField(byte[] bytes, int[] fields, int index) {
+        return StringPool.shared().canonical(field(bytes, fields, index));
+    }
+
+    private static boolean isSingleByte(byte[] bytes, int start, int end, char c) {
+        return end - start == 1 && bytes[start] == c;
+    }
+
+    static int skipWhitespace(byte[] bytes, int start, int end) {
+        while (start < end && isWhitespace(bytes[start])) {
+            start++;
+        }
+        return start;
+    }
+
+    static int trimWhitespace(byte[] bytes, int start, int end) {
+        while (end > start && isWhitespace(bytes[end - 1])) {
+            end--;
+        }
+        return end;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\f' || b == 0x0B;
+    }
+
+    private static int countLines(byte[] bytes, int from, int to) {
+        int lines = 0;
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == '\n') {
+                lines++;
+            }
+        }
+        return lines;
+    }
+}
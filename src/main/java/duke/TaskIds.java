@@ -0,0 +1,173 @@
+package duke;
+
+import java.util.List;
+
+/**
+ * Hash index from stable task ids to current list positions.
+ *
+ * <p>Ids are kept in an open-addressing table of plain {@code int}s, so a lookup neither
+ * boxes the id nor follows pointers. The table maps an id to the order in which its task was
+ * indexed; until the first delete that order is the position itself, after which
+ * {@link LivePositions} turns it into a position in O(log n) instead of renumbering every
+ * later task. Changes that reorder the list, such as a sort, are not tracked: the owner
+ * discards the index and builds a new one when next needed.</p>
+ */
+public class TaskIds {
+    private static final int INITIAL_CAPACITY = 16; // a power of two
+    private static final int EMPTY = 0; // ids start at 1
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+
+    private final LivePositions live = new LivePositions();
+    private int[] keys = new int[INITIAL_CAPACITY];
+    private int[] values = new int[INITIAL_CAPACITY];
+    private int count;
+    private int removedCount;
+
+    /**
+     * Builds an index over the tasks, in list order.
+     *
+     * @param tasks tasks to index; every task must have an id
+     * @return index of the tasks
+     */
+    public static TaskIds build(List<Task> tasks) {
+        TaskIds index = new TaskIds();
+        index.resize(Integer.highestOneBit(Math.max(INITIAL_CAPACITY, tasks.size()) * 2 - 1) * 2);
+        for (int i = 0; i < tasks.size(); i++) {
+            index.append(idAt(tasks, i));
+        }
+        return index;
+    }
+
+    /**
+     * Gives every task without an id one, numbering on from the highest id already in use.
+     * Tasks of a storage-backed list are set back so their new ids are saved; a compact list
+     * takes the ids without building its tasks.
+     *
+     * @param tasks list to update in place
+     * @return highest id in use afterwards, or 0 if the list is empty
+     */
+    public static int assignMissing(List<Task> tasks) {
+        int maxId = 0;
+        boolean isMissingAny = false;
+        for (int i = 0; i < tasks.size(); i++) {
+            int id = idAt(tasks, i);
+            maxId = Math.max(maxId, id);
+            isMissingAny |= id == 0;
+        }
+
+        for (int i = 0; isMissingAny && i < tasks.size(); i++) {
+            if (idAt(tasks, i) != 0) {
+                continue;
+            }
+            if (tasks instanceof CompactTaskList) {
+                ((CompactTaskList) tasks).setIdAt(i, ++maxId);
+            } else {
+                Task task = tasks.get(i);
+                task.setId(++maxId);
+                tasks.set(i, task);
+            }
+        }
+        return maxId;
+    }
+
+    /**
+     * Returns the id of the task at the given position, without building it if the list is compact.
+     */
+    static int idAt(List<Task> tasks, int position) {
+        return tasks instanceof CompactTaskList
+                ? ((CompactTaskList) tasks).idAt(position)
+                : tasks.get(position).getId();
+    }
+
+    /**
+     * Indexes a task added at the end of the list.
+     *
+     * @param id the new task's id; a task without one takes up its position but cannot be looked up
+     */
+    public void append(int id) {
+        if ((count + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        int order = live.append();
+        if (id != EMPTY) {
+            put(id, order);
+        }
+    }
+
+    /**
+     * Forgets the task at the given position; later tasks move up by one.
+     *
+     * @param position 0-based position of the removed task
+     */
+    public void remove(int position) {
+        live.remove(position);
+        removedCount++;
+    }
+
+    /**
+     * Returns whether enough tasks were deleted that rebuilding would make lookups noticeably cheaper.
+     */
+    public boolean isWorthRebuilding() {
+        return live.isWorthRebuilding();
+    }
+
+    /**
+     * Finds the task with the given id.
+     *
+     * @param id id to look up
+     * @return 0-based position of the task, or -1 if no task in the list has that id
+     */
+    public int positionOf(int id) {
+        if (id == EMPTY) {
+            return -1;
+        }
+
+        int mask = keys.length - 1;
+        for (int slot = hash(id) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == id) {
+                int order = values[slot];
+                if (removedCount == 0) {
+                    return order;
+                }
+                return live.isLive(order) ? live.positionOf(order) : -1;
+            }
+        }
+        return -1;
+    }
+
+    // ========== Private Methods ==========
+
+    private void put(int id, int order) {
+        int mask = keys.length - 1;
+        int slot = hash(id) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == EMPTY) {
+            count++;
+        }
+        keys[slot] = id;
+        values[slot] = order;
+    }
+
+    private void resize(int capacity) {
+        if (capacity <= keys.length) {
+            return;
+        }
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        count = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int hash(int id) {
+        int h = id * HASH_MULTIPLIER;
+        return h ^ (h >>> 16);
+    }
+}
@@ -1,9 +1,16 @@
 package duke;
 
 import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * Manages the in-memory list of tasks and coordinates persistence.
@@ -11,20 +18,44 @@ import java.util.List;
  * Enhanced with sorting functionality and improved separation of concerns.
  */
 public class TaskList {
-    private final ArrayList<Task> tasks = new ArrayList<>();
-    private static final String DIVIDER_LINE = "____________________________________________________________";
+    private final List<Task> tasks;
     private static final int FIRST_TASK_INDEX = 1;
+    private static final long DEFAULT_SAVE_DELAY_MILLIS = 200;
+    private static final int DEFAULT_SAVE_BATCH_SIZE = 1000;
+    private static final DataFileLock.Hold NO_HOLD = () -> { };
+    private static final int MAX_TASKS_IN_SUMMARY = 10;
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("EEE MMM d yyyy", Locale.ENGLISH);
+    private static final DateTimeFormatter SLOT_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+    private static final int MAX_CONFLICTS_SHOWN = 100;
+    public static final int PAGE_SIZE = 20;
     private final Storage storage;
+    private BackgroundSaver saver;
+    private DataFileWatcher watcher;
+    private WordIndex wordIndex; // built on the first word search, null while out of date
+    private TrigramIndex trigramIndex; // built on the first substring search, null while out of date
+    private SortedViews sortedViews; // built on the first sorted listing, null while out of date
+    private TaskIds taskIds; // built on the first lookup by id, null while out of date
+    private DateIndex dateIndex; // built on the first date query, null while out of date
+    private EventIndex eventIndex; // built on the first event query or scheduled event added, null while out of date
+    private int nextTaskId;
+    private volatile List<Task> snapshot; // published after every change once concurrent reads are on, else null
+    private SnapshotPublisher publisher; // null until concurrent reads are on
+    private History history = new History(History.DEFAULT_LIMIT);
+    private TaskStats stats; // built on the first stats command, then kept up to date
 
     // Default constructor (no auto-save)
     public TaskList() {
+        this.tasks = new ArrayList<>();
         this.storage = null;
+        this.nextTaskId = 1;
     }
 
-    // Constructor with preloaded tasks and storage for persistence
+    // Constructor with preloaded tasks and storage for persistence.
+    // A compact list (mapped or columnar) is adopted as-is so its tasks are not all built up front.
     public TaskList(List<Task> initial, Storage storage) {
-        this.tasks.addAll(initial);
+        this.tasks = initial instanceof CompactTaskList ? initial : new ArrayList<>(initial);
         this.storage = storage;
+        this.nextTaskId = TaskIds.assignMissing(this.tasks) + 1;
     }
 
     // ========== Public Task Management Methods ==========
@@ -34,113 +65,992 @@ public class TaskList {
      *
      * @param task task to add
      */
-    public void add(Task task) {
-        tasks.add(task);
-        displayAddConfirmation(task);
-        saveToStorage();
+    public synchronized void add(Task task) {
+        DataFileLock.Hold hold = beginChange();
+        try {
+            task.setId(nextTaskId++);
+            int[] overlapping = findOverlapping(task);
+            tasks.add(task);
+            indexAppended(task);
+            statsReplaced(null, task);
+            history.recordCommand(History.Step.remove("adding " + quote(task), new int[] {tasks.size() - 1}));
+            displayAddConfirmation(task);
+            if (overlapping.length > 0) {
+                displayOverlapWarning(overlapping);
+            }
+            saveToStorage(Mutation.add(task));
+        } finally {
+            endChange(hold);
+        }
+    }
+
+    /**
+     * Lists all tasks to standard output in a numbered format.
+     * With concurrent reads on, this reads the latest snapshot and never waits for a change in progress.
+     */
+    public void list() {
+        List<Task> view = snapshot;
+        if (view != null) {
+            displayTaskList(view);
+            return;
+        }
+        synchronized (this) {
+            displayTaskList(tasks);
+        }
+    }
+
+    /**
+     * Lists part of the list like {@link #list()}, so a long list can be read a page at a time.
+     *
+     * @param offset number of tasks to skip from the start
+     * @param count most tasks to show
+     * @throws BoshException if the offset is past the end of a non-empty list
+     */
+    public void list(int offset, int count) throws BoshException {
+        List<Task> view = snapshot;
+        if (view != null) {
+            displayTaskPage(view, offset, count);
+            return;
+        }
+        synchronized (this) {
+            displayTaskPage(tasks, offset, count);
+        }
+    }
+
+    /**
+     * Lists the given page of the list, {@value #PAGE_SIZE} tasks to a page.
+     *
+     * @param page 1-based page number
+     * @throws BoshException if the page is past the end of a non-empty list
+     */
+    public void listPage(int page) throws BoshException {
+        list((int) Math.min(Integer.MAX_VALUE, (page - 1L) * PAGE_SIZE), PAGE_SIZE);
+    }
+
+    /**
+     * Lists all tasks like {@link #list()}, with each task's id after its number.
+     */
+    public synchronized void listWithIds() {
+        TaskPrinter printer = TaskPrinter.start().line("Here are the tasks in your list: ");
+        for (int i = 0; i < tasks.size(); i++) {
+            printer.taskWithId(i + FIRST_TASK_INDEX, tasks.get(i));
+        }
+        printer.print();
+    }
+
+    /**
+     * Finds the task with the given id.
+     *
+     * @param id the task's id, as shown by {@link #listWithIds()}
+     * @return 1-based index of the task
+     * @throws BoshException if no task has that id
+     */
+    public synchronized int indexOfId(int id) throws BoshException {
+        reloadFromDisk();
+        if (taskIds == null) {
+            taskIds = TaskIds.build(tasks);
+        }
+        int position = taskIds.positionOf(id);
+        if (position < 0) {
+            throw new BoshException("There isn’t a task with id #" + id + ".");
+        }
+        return position + FIRST_TASK_INDEX;
+    }
+
+    /**
+     * Marks the given 1-based index as done.
+     *
+     * @param index 1-based task index
+     * @throws BoshException if the index is out of range
+     */
+    public synchronized void mark(int index) throws BoshException {
+        DataFileLock.Hold hold = beginChange();
+        try {
+            Task previous = getValidatedTask(index);
+            Task task = previous.withStatus(true);
+            tasks.set(index - FIRST_TASK_INDEX, task);
+            indexUpdated(index - FIRST_TASK_INDEX, task);
+            statsReplaced(previous, task);
+            history.recordCommand(History.Step.replace("marking " + quote(task) + " as done",
+                    new int[] {index - FIRST_TASK_INDEX}, List.of(previous)));
+            displayMarkConfirmation(task, true);
+            saveToStorage(Mutation.status(index - FIRST_TASK_INDEX, true));
+        } finally {
+            endChange(hold);
+        }
+    }
+
+    /**
+     * Unmarks the given 1-based index as not done.
+     *
+     * @param index 1-based task index
+     * @throws BoshException if the index is out of range
+     */
+    public synchronized void unmark(int index) throws BoshException {
+        DataFileLock.Hold hold = beginChange();
+        try {
+            Task previous = getValidatedTask(index);
+            Task task = previous.withStatus(false);
+            tasks.set(index - FIRST_TASK_INDEX, task);
+            indexUpdated(index - FIRST_TASK_INDEX, task);
+            statsReplaced(previous, task);
+            history.recordCommand(History.Step.replace("marking " + quote(task) + " as not done",
+                    new int[] {index - FIRST_TASK_INDEX}, List.of(previous)));
+            displayMarkConfirmation(task, false);
+            saveToStorage(Mutation.status(index - FIRST_TASK_INDEX, false));
+        } finally {
+            endChange(hold);
+        }
+    }
+
+    /**
+     * Deletes the task at the given 1-based index.
+     *
+     * @param oneBasedIndex 1-based task index
+     * @throws BoshException if the index is out of range
+     */
+    public synchronized void delete(int oneBasedIndex) throws BoshException {
+        DataFileLock.Hold hold = beginChange();
+        try {
+            validateTaskIndex(oneBasedIndex);
+            Task removed = tasks.remove(oneBasedIndex - FIRST_TASK_INDEX);
+            indexRemoved(oneBasedIndex - FIRST_TASK_INDEX);
+            statsReplaced(removed, null);
+            history.recordCommand(History.Step.insert("deleting " + quote(removed),
+                    new int[] {oneBasedIndex - FIRST_TASK_INDEX}, List.of(removed)));
+            displayDeleteConfirmation(removed);
+            saveToStorage(Mutation.delete(oneBasedIndex - FIRST_TASK_INDEX));
+        } finally {
+            endChange(hold);
+        }
+    }
+
+    /**
+     * Lists all tasks in the given order without changing the list or saving anything.
+     * Tasks keep their usual numbers.
+     *
+     * @param order order to list in
+     */
+    public synchronized void listBy(SortOrder order) {
+        if (sortedViews == null) {
+            sortedViews = new SortedViews(tasks.size());
+        }
+
+        TaskPrinter printer = TaskPrinter.start().line("Here are the tasks in your list by " + order.getName() + ":");
+        for (int position : sortedViews.positionsIn(order, tasks)) {
+            printer.task(position + FIRST_TASK_INDEX, tasks.get(position));
+        }
+        printer.print();
+    }
+
+    // ========== Date Query Methods ==========
+
+    /**
+     * Lists pending deadlines due before the given day, earliest first.
+     *
+     * @param day first day to leave out
+     */
+    public synchronized void dueBefore(LocalDate day) {
+        int[] positions = getDateIndex().positionsBetween(Long.MIN_VALUE, SortKey.startOfDay(day), Integer.MAX_VALUE);
+        displayDeadlines("Here are the deadlines due before " + day.format(DAY_FORMAT) + ":", positions);
+    }
+
+    /**
+     * Lists the next pending deadlines that are not yet overdue, earliest first.
+     *
+     * @param count most deadlines to list
+     */
+    public synchronized void upcoming(int count) {
+        LocalDateTime now = LocalDateTime.now();
+        long today = SortKey.startOfDay(now.toLocalDate());
+        int[] dueToday = getDateIndex().positionsBetween(today, today + 1, count);
+        int[] later = getDateIndex().positionsBetween(SortKey.dueKey(now), Long.MAX_VALUE, count - dueToday.length);
+        displayDeadlines("Here are your upcoming deadlines:", concat(dueToday, later));
+    }
+
+    /**
+     * Lists pending deadlines that have passed, earliest first. A deadline without a
+     * time is overdue once its day is over.
+     */
+    public synchronized void overdue() {
+        LocalDateTime now = LocalDateTime.now();
+        long today = SortKey.startOfDay(now.toLocalDate());
+        int[] beforeToday = getDateIndex().positionsBetween(Long.MIN_VALUE, today, Integer.MAX_VALUE);
+        int[] earlierToday = getDateIndex().positionsBetween(today + 1, SortKey.dueKey(now), Integer.MAX_VALUE);
+        displayDeadlines("Here are your overdue deadlines:", concat(beforeToday, earlierToday));
+    }
+
+    /**
+     * Lists pending deadlines due between two days, grouped by day.
+     *
+     * @param from first day to include
+     * @param to last day to include
+     * @throws BoshException if the range ends before it starts
+     */
+    public synchronized void agenda(LocalDate from, LocalDate to) throws BoshException {
+        if (to.isBefore(from)) {
+            throw new BoshException("The agenda has to end on or after the day it starts.");
+        }
+
+        int[] positions = getDateIndex().positionsBetween(SortKey.startOfDay(from),
+                SortKey.startOfDay(to.plusDays(1)), Integer.MAX_VALUE);
+        TaskPrinter printer = TaskPrinter.start().line(from.equals(to)
+                ? "Here is your agenda for " + from.format(DAY_FORMAT) + ":"
+                : "Here is your agenda from " + from.format(DAY_FORMAT) + " to " + to.format(DAY_FORMAT) + ":");
+        LocalDate shownDay = null;
+        for (int position : positions) {
+            Task task = tasks.get(position);
+            LocalDate day = SortKey.dayOf(SortKey.dueKey(task));
+            if (!day.equals(shownDay)) {
+                printer.line(day.format(DAY_FORMAT) + ":");
+                shownDay = day;
+            }
+            printer.task("  ", position + FIRST_TASK_INDEX, task);
+        }
+        if (positions.length == 0) {
+            printer.line("Nothing is due.");
+        }
+        printer.print();
+    }
+
+    // ========== Event Query Methods ==========
+
+    /**
+     * Lists every pair of scheduled events that overlap.
+     */
+    public synchronized void conflicts() {
+        List<int[]> pairs = getEventIndex().overlappingPairs(MAX_CONFLICTS_SHOWN + 1);
+
+        TaskPrinter printer = TaskPrinter.start()
+                .line(pairs.isEmpty() ? "None of your events overlap." : "Here are the events that overlap:");
+        int shownFirst = -1;
+        for (int[] pair : pairs.subList(0, Math.min(pairs.size(), MAX_CONFLICTS_SHOWN))) {
+            if (pair[0] != shownFirst) {
+                printer.task(pair[0] + FIRST_TASK_INDEX, tasks.get(pair[0]));
+                shownFirst = pair[0];
+            }
+            printer.task("  overlaps ", pair[1] + FIRST_TASK_INDEX, tasks.get(pair[1]));
+        }
+        if (pairs.size() > MAX_CONFLICTS_SHOWN) {
+            printer.line("... showing the first " + MAX_CONFLICTS_SHOWN + " overlaps.");
+        }
+        printer.print();
+    }
+
+    /**
+     * Lists the scheduled events taking place on the given day, in order of their start.
+     *
+     * @param day day to list
+     */
+    public synchronized void eventsOn(LocalDate day) {
+        TaskPrinter printer = TaskPrinter.start().line("Here are your events on " + day.format(DAY_FORMAT) + ":");
+        int[] positions = findEventsOn(day);
+        for (int position : positions) {
+            printer.task(position + FIRST_TASK_INDEX, tasks.get(position));
+        }
+        if (positions.length == 0) {
+            printer.line("No events.");
+        }
+        printer.print();
+    }
+
+    /**
+     * Lists the times of the given day that no scheduled event takes up.
+     *
+     * @param day day to check
+     */
+    public synchronized void free(LocalDate day) {
+        LocalDateTime dayStart = day.atStartOfDay();
+        LocalDateTime dayEnd = day.plusDays(1).atStartOfDay();
+
+        TaskPrinter printer = TaskPrinter.start().line("You are free on " + day.format(DAY_FORMAT) + ":");
+        LocalDateTime freeFrom = dayStart;
+        boolean isAnyFree = false;
+        for (int position : findEventsOn(day)) {
+            Event event = (Event) tasks.get(position);
+            if (event.start.isAfter(freeFrom)) {
+                printer.line("  " + formatSlot(freeFrom, event.start, dayEnd));
+                isAnyFree = true;
+            }
+            if (event.end.isAfter(freeFrom)) {
+                freeFrom = event.end;
+            }
+        }
+        if (freeFrom.isBefore(dayEnd)) {
+            printer.line("  " + formatSlot(freeFrom, dayEnd, dayEnd));
+            isAnyFree = true;
+        }
+        if (!isAnyFree) {
+            printer.line("  never; events take up the whole day.");
+        }
+        printer.print();
+    }
+
+    // ========== Bulk Task Management Methods ==========
+
+    /**
+     * Marks every given task as done, saving once.
+     *
+     * @param indexes 1-based task indexes, ascending and without repeats
+     * @throws BoshException if any index is out of range; nothing is changed then
+     */
+    public synchronized void markAll(int[] indexes) throws BoshException {
+        setStatusOfAll(indexes, true);
+    }
+
+    /**
+     * Marks every given task as not done, saving once.
+     *
+     * @param indexes 1-based task indexes, ascending and without repeats
+     * @throws BoshException if any index is out of range; nothing is changed then
+     */
+    public synchronized void unmarkAll(int[] indexes) throws BoshException {
+        setStatusOfAll(indexes, false);
+    }
+
+    /**
+     * Deletes every given task in one pass over the list, saving once.
+     *
+     * @param indexes 1-based task indexes, ascending and without repeats
+     * @throws BoshException if any index is out of range; nothing is deleted then
+     */
+    public synchronized void deleteAll(int[] indexes) throws BoshException {
+        DataFileLock.Hold hold = beginChange();
+        try {
+            validateTaskIndexes(indexes);
+
+            BitSet positions = new BitSet(tasks.size());
+            for (int index : indexes) {
+                positions.set(index - FIRST_TASK_INDEX);
+            }
+            deletePositions(positions);
+        } finally {
+            endChange(hold);
+        }
+    }
+
+    /**
+     * Deletes every completed task in one pass over the list, saving once.
+     */
+    public synchronized void deleteDone() {
+        DataFileLock.Hold hold = beginChange();
+        try {
+            BitSet positions = new BitSet(tasks.size());
+            for (int i = 0; i < tasks.size(); i++) {
+                if (tasks.get(i).isDone) {
+                    positions.set(i);
+                }
+            }
+            deletePositions(positions);
+        } finally {
+            endChange(hold);
+        }
+    }
+
+    /**
+     * Finds and displays tasks containing the given keyword.
+     * With concurrent reads on, this scans the latest snapshot and never waits for a change in progress.
+     *
+     * @param keyword search keyword
+     * @throws BoshException if keyword is null or empty
+     */
+    public void find(String keyword) throws BoshException {
+        validateKeyword(keyword);
+        List<Task> view = snapshot;
+        if (view != null) {
+            displaySearchResults(scanForKeyword(view, keyword.toLowerCase()));
+            return;
+        }
+        synchronized (this) {
+            displaySearchResults(findMatchingTasks(keyword));
+        }
+    }
+
+    /**
+     * Finds and displays tasks whose descriptions contain every given word as a whole word,
+     * using an index instead of scanning the list.
+     *
+     * @param query one or more words, matched case-insensitively
+     * @throws BoshException if the query contains no words
+     */
+    public synchronized void findWords(String query) throws BoshException {
+        if (query == null || WordIndex.words(query).isEmpty()) {
+            throw new BoshException("Usage: find -w <word>...");
+        }
+        if (wordIndex == null) {
+            wordIndex = WordIndex.build(tasks);
+        }
+
+        List<Task> matchingTasks = new ArrayList<>();
+        for (int position : wordIndex.findAll(query)) {
+            matchingTasks.add(tasks.get(position));
+        }
+        displaySearchResults(matchingTasks);
+    }
+
+    /**
+     * Finds and displays tasks whose descriptions contain each given word, or a word within a few
+     * typos of it, so that {@code retrun} finds "return book".
+     *
+     * @param query one or more words, matched case-insensitively
+     * @throws BoshException if the query contains no words
+     * @see WordIndex#typosAllowed(String)
+     */
+    public synchronized void findFuzzy(String query) throws BoshException {
+        if (query == null || WordIndex.words(query).isEmpty()) {
+            throw new BoshException("Usage: find ~<word>...");
+        }
+        if (wordIndex == null) {
+            wordIndex = WordIndex.build(tasks);
+        }
+
+        List<Task> matchingTasks = new ArrayList<>();
+        for (int position : wordIndex.findFuzzy(query)) {
+            matchingTasks.add(tasks.get(position));
+        }
+        displaySearchResults(matchingTasks);
+    }
+
+    // ========== Sorting Methods ==========
+
+    /**
+     * Sorts tasks alphabetically by description.
+     */
+    public synchronized void sortByDescription() {
+        sortBy(SortKey::byDescription, "description");
+    }
+
+    /**
+     * Sorts tasks by type (Todo, Deadline, Event).
+     */
+    public synchronized void sortByType() {
+        sortBy(SortKey::byType, "type");
+    }
+
+    /**
+     * Sorts tasks by deadline date. Tasks without dates come last.
+     */
+    public synchronized void sortByDeadline() {
+        sortBy(SortKey::byDeadline, "deadline");
+    }
+
+    /**
+     * Sorts tasks by completion status (incomplete tasks first).
+     */
+    public synchronized void sortByStatus() {
+        sortBy(SortKey::byStatus, "status");
+    }
+
+    /**
+     * Shows how many tasks there are of each type, how many are done, and how many deadlines
+     * are overdue. The counts are kept up to date as the list changes, so this does not scan the list.
+     */
+    public synchronized void stats() {
+        reloadFromDisk();
+        if (stats == null) {
+            stats = TaskStats.build(tasks);
+        }
+
+        int done = 0;
+        for (TaskType type : TaskType.values()) {
+            done += stats.count(type, true);
+        }
+        Ui.box("Here are your task statistics:",
+                "  " + describeCount("Todos", TaskType.TODO, ""),
+                "  " + describeCount("Deadlines", TaskType.DEADLINE,
+                        ", " + stats.overdue(LocalDateTime.now()) + " overdue"),
+                "  " + describeCount("Events", TaskType.EVENT, ""),
+                "  Total: " + tasks.size() + " (" + done + " done, " + (tasks.size() - done) + " pending)");
+    }
+
+    /**
+     * Reverses the latest command that changed the list and has not been undone yet.
+     * Only what that command changed is touched, so undoing costs about as much as the command did.
+     *
+     * @throws BoshException if there is nothing to undo
+     */
+    public synchronized void undo() throws BoshException {
+        DataFileLock.Hold hold = beginChange();
+        try {
+            History.Step step = history.popUndo();
+            if (step == null) {
+                throw new BoshException("There is nothing to undo.");
+            }
+            history.pushRedo(apply(step));
+            Ui.box("Undid " + step.getLabel() + ".", "Now you have " + tasks.size() + " tasks in the list.");
+        } finally {
+            endChange(hold);
+        }
+    }
+
+    /**
+     * Makes the latest undone command again. Any new change to the list discards what could be redone.
+     *
+     * @throws BoshException if there is nothing to redo
+     */
+    public synchronized void redo() throws BoshException {
+        DataFileLock.Hold hold = beginChange();
+        try {
+            History.Step step = history.popRedo();
+            if (step == null) {
+                throw new BoshException("There is nothing to redo.");
+            }
+            history.pushUndo(apply(step));
+            Ui.box("Redid " + step.getLabel() + ".", "Now you have " + tasks.size() + " tasks in the list.");
+        } finally {
+            endChange(hold);
+        }
+    }
+
+    /**
+     * Returns the number of tasks in the list, as of the latest snapshot if concurrent reads are on.
+     */
+    public int size() {
+        List<Task> view = snapshot;
+        if (view != null) {
+            return view.size();
+        }
+        synchronized (this) {
+            return tasks.size();
+        }
+    }
+
+    // ========== Archive Methods ==========
+
+    /**
+     * Moves every completed task into the archive, which is not loaded at startup.
+     *
+     * @throws BoshException if there is no storage or the archive cannot be written
+     */
+    public synchronized void archive() throws BoshException {
+        int count = archiveWhere(task -> task.isDone);
+        Ui.box(count == 0 ? "There are no completed tasks to archive." : "Archived " + count + " completed task(s).",
+                "Now you have " + tasks.size() + " tasks in the list.");
+    }
+
+    /**
+     * Moves completed deadlines that were due before the given day into the archive.
+     * Tasks do not record when they were completed, so the due date stands in for their age.
+     *
+     * @param cutoff first day whose completed deadlines are kept
+     * @return number of tasks archived
+     * @throws BoshException if there is no storage or the archive cannot be written
+     */
+    public synchronized int archiveCompletedBefore(LocalDate cutoff) throws BoshException {
+        return archiveWhere(task -> task.isDone && isDueBefore(task, cutoff));
+    }
+
+    /**
+     * Finds and displays archived tasks containing the given keyword, numbered by
+     * their position in the archive as used by {@link #restore(int)}.
+     *
+     * @param keyword search keyword
+     * @throws BoshException if the keyword is empty or the archive cannot be read
+     */
+    public synchronized void findArchived(String keyword) throws BoshException {
+        validateKeyword(keyword);
+        List<Task> archived = loadArchive();
+        String lowerCaseKeyword = keyword.toLowerCase();
+
+        TaskPrinter printer = TaskPrinter.start().line("Here are the matching archived tasks:");
+        for (int i = 0; i < archived.size(); i++) {
+            if (taskContainsKeyword(archived.get(i), lowerCaseKeyword)) {
+                printer.task(i + FIRST_TASK_INDEX, archived.get(i));
+            }
+        }
+        printer.print();
+    }
+
+    /**
+     * Moves an archived task back to the end of the list.
+     *
+     * @param archiveNumber 1-based position in the archive, as shown by {@link #findArchived(String)}
+     * @throws BoshException if no archived task has that number or the archive cannot be written
+     */
+    public synchronized void restore(int archiveNumber) throws BoshException {
+        DataFileLock.Hold hold = beginChange();
+        try {
+            List<Task> archived = loadArchive();
+            if (archiveNumber < FIRST_TASK_INDEX || archiveNumber > archived.size()) {
+                throw new BoshException("There isn’t an archived task #" + archiveNumber + ".");
+            }
+
+            // The list is saved before the archive shrinks, so a crash can duplicate the task but not lose it
+            Task task = archived.remove(archiveNumber - FIRST_TASK_INDEX);
+            if (task.getId() == 0 || isIdInUse(task.getId())) {
+                task.setId(nextTaskId++); // archived before it had an id, or its id was handed out again since
+            }
+            nextTaskId = Math.max(nextTaskId, task.getId() + 1);
+            tasks.add(task);
+            indexAppended(task);
+            statsReplaced(null, task);
+            history.clear(); // undoing around the archive would lose or duplicate tasks
+            saveToStorage(Mutation.add(task));
+            try {
+                storage.saveArchive(archived);
+            } catch (IOException e) {
+                throw new BoshException("Could not update the archive: " + e.getMessage());
+            }
+
+            Ui.box("Restored this task from the archive:", "  " + task,
+                    "Now you have " + tasks.size() + " tasks in the list.");
+        } finally {
+            endChange(hold);
+        }
+    }
+
+    // ========== Persistence Control Methods ==========
+
+    /**
+     * Applies startup options given as system properties.
+     * {@code -Dbosh.archive.afterDays=N} archives completed deadlines due more than N days ago.
+     * {@code -Dbosh.undo.limit=N} sets how many commands can be undone (100 by default).
+     * {@code -Dbosh.concurrent=true} turns on {@link #enableConcurrentReads() concurrent reads}.
+     * {@code -Dbosh.async=true} enables background saving, tuned with
+     * {@code -Dbosh.async.maxDelayMs} and {@code -Dbosh.async.maxBatch}.
+     * If the storage was set up for sharing with {@code -Dbosh.watch=true}, changes made by
+     * other instances are followed instead, and background saving stays off.
+     */
+    public void applyStartupOptions() {
+        Integer archiveAfterDays = Integer.getInteger("bosh.archive.afterDays");
+        if (archiveAfterDays != null && storage != null) {
+            try {
+                archiveCompletedBefore(LocalDate.now().minusDays(archiveAfterDays));
+            } catch (BoshException e) {
+                Ui.error(e.getMessage());
+            }
+        }
+        Integer undoLimit = Integer.getInteger("bosh.undo.limit");
+        if (undoLimit != null) {
+            history = new History(undoLimit);
+        }
+        if (Boolean.getBoolean("bosh.concurrent")) {
+            enableConcurrentReads();
+        }
+        if (storage != null && storage.isWatching()) {
+            startWatching();
+        } else if (Boolean.getBoolean("bosh.async")) {
+            enableBackgroundSaving(Long.getLong("bosh.async.maxDelayMs", DEFAULT_SAVE_DELAY_MILLIS),
+                    Integer.getInteger("bosh.async.maxBatch", DEFAULT_SAVE_BATCH_SIZE));
+        }
+    }
+
+    /**
+     * Follows changes other instances make to the shared data file, applying only the
+     * changed tasks. Requires storage on which {@link Storage#enableWatching()} was called
+     * before loading; has no effect otherwise.
+     */
+    public synchronized void startWatching() {
+        if (storage == null || !storage.isWatching() || watcher != null || saver != null) {
+            return;
+        }
+        try {
+            watcher = new DataFileWatcher(storage.getFile(), this::reportReload);
+        } catch (IOException e) {
+            Ui.error("Could not watch " + storage.getFile().getFileName() + " for changes: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Runs a command made of several calls on the list, such as looking a task up by id and
+     * then marking it, as one change to a shared data file: the file stays locked from
+     * the first read to the last save, so another instance cannot move a task between the calls.
+     * Without a shared file the command simply runs.
+     *
+     * @param command calls to make
+     * @throws BoshException if the command fails
+     */
+    public synchronized void runAsOneChange(Command command) throws BoshException {
+        DataFileLock.Hold hold = beginChange();
+        try {
+            command.run();
+        } finally {
+            endChange(hold);
+        }
+    }
+
+    /**
+     * Applies changes another instance made to the shared data file since this list last
+     * read or wrote it. Every change made here calls this first and keeps the file locked
+     * until it is saved, so it never overwrites a change it has not seen.
+     *
+     * @return number of tasks that were replaced, added or removed (0 if nothing changed)
+     */
+    public synchronized int reloadFromDisk() {
+        if (storage == null || !storage.isWatching()) {
+            return 0;
+        }
+
+        try {
+            SnapshotDiff diff = storage.readChanges();
+            if (diff == null || diff.isEmpty()) {
+                return 0;
+            }
+            for (Task task : diff.getAdded()) {
+                if (task.getId() == 0) {
+                    task.setId(nextTaskId++);
+                }
+                nextTaskId = Math.max(nextTaskId, task.getId() + 1);
+            }
+            diff.applyTo(tasks);
+            invalidateIndexes();
+            stats = null;
+            history.clear(); // recorded positions may no longer hold the same tasks
+            publishSnapshot();
+            return Math.max(diff.getRemovedCount(), diff.getAdded().size());
+        } catch (IOException e) {
+            Ui.error("Could not reload tasks: " + e.getMessage());
+            return 0;
+        }
     }
 
     /**
-     * Lists all tasks to standard output in a numbered format.
+     * Lets {@link #list()}, {@link #find(String)} and {@link #size()} run against an immutable
+     * snapshot of the list, so they never wait for a change and can be called from any thread.
+     * Changes are still made one at a time, each publishing a new snapshot when it is done;
+     * a snapshot shares the parts of the list a change did not touch with the one before it.
      */
-    public void list() {
-        displayTaskList();
+    public synchronized void enableConcurrentReads() {
+        publisher = new SnapshotPublisher();
+        snapshot = publisher.publish(tasks);
     }
 
     /**
-     * Marks the given 1-based index as done.
+     * Moves persistence onto a background thread that coalesces bursts of
+     * changes into single writes. Has no effect without storage, or while
+     * following changes from other instances.
      *
-     * @param index 1-based task index
-     * @throws BoshException if the index is out of range
+     * @param maxDelayMillis longest a change may wait before being written
+     * @param maxBatchSize number of pending changes that triggers an immediate write
      */
-    public void mark(int index) throws BoshException {
-        Task task = getValidatedTask(index);
-        task.markAsDone();
-        displayMarkConfirmation(task, true);
-        saveToStorage();
+    public synchronized void enableBackgroundSaving(long maxDelayMillis, int maxBatchSize) {
+        if (storage == null || saver != null || watcher != null) {
+            return;
+        }
+        saver = new BackgroundSaver(storage, this, this::copyTasks, maxDelayMillis, maxBatchSize);
     }
 
     /**
-     * Unmarks the given 1-based index as not done.
+     * Writes any changes still waiting on the background saver and forces
+     * unsynced writes to disk. Call before exiting.
      *
-     * @param index 1-based task index
-     * @throws BoshException if the index is out of range
+     * @return summary of background saving, or null if it is not enabled
      */
-    public void unmark(int index) throws BoshException {
-        Task task = getValidatedTask(index);
-        task.markAsUndone();
-        displayMarkConfirmation(task, false);
-        saveToStorage();
+    public String close() {
+        if (watcher != null) {
+            watcher.close();
+        }
+        if (saver != null) {
+            saver.close();
+        }
+        if (storage != null) {
+            storage.close();
+        }
+        return saver == null ? null : saver.getReport();
     }
 
     /**
-     * Deletes the task at the given 1-based index.
-     *
-     * @param oneBasedIndex 1-based task index
-     * @throws BoshException if the index is out of range
+     * Reloads after the watcher saw the data file change, telling the user if anything did.
      */
-    public void delete(int oneBasedIndex) throws BoshException {
-        validateTaskIndex(oneBasedIndex);
-        Task removed = tasks.remove(oneBasedIndex - FIRST_TASK_INDEX);
-        displayDeleteConfirmation(removed);
-        saveToStorage();
+    private synchronized void reportReload() {
+        if (reloadFromDisk() > 0) {
+            Ui.box("Your list was changed in another window and has been reloaded.",
+                    "Now you have " + tasks.size() + " tasks in the list.");
+        }
+    }
+
+    // ========== Private Bulk Methods ==========
+
+    private void setStatusOfAll(int[] indexes, boolean isDone) throws BoshException {
+        DataFileLock.Hold hold = beginChange();
+        try {
+            validateTaskIndexes(indexes);
+
+            List<Task> changed = new ArrayList<>(indexes.length);
+            List<Task> previous = new ArrayList<>(indexes.length);
+            int[] positions = new int[indexes.length];
+            List<Mutation> batch = new ArrayList<>(indexes.length);
+            for (int i = 0; i < indexes.length; i++) {
+                int position = indexes[i] - FIRST_TASK_INDEX;
+                Task task = tasks.get(position).withStatus(isDone);
+                previous.add(tasks.set(position, task));
+                indexUpdated(position, task);
+                statsReplaced(previous.get(i), task);
+                changed.add(task);
+                positions[i] = position;
+                batch.add(Mutation.status(position, isDone));
+            }
+            history.recordCommand(History.Step.replace("marking " + changed.size() + " task(s) as "
+                    + (isDone ? "done" : "not done"), positions, previous));
+
+            String message = isDone ? "Nice! Marked " + changed.size() + " task(s) as done:"
+                    : "OK! Marked " + changed.size() + " task(s) as not done:";
+            displayBulkSummary(message, changed);
+            saveToStorage(batch);
+        } finally {
+            endChange(hold);
+        }
     }
 
     /**
-     * Finds and displays tasks containing the given keyword.
-     *
-     * @param keyword search keyword
-     * @throws BoshException if keyword is null or empty
+     * Deletes the tasks at the given positions, remembering them so the deletion can be undone.
      */
-    public void find(String keyword) throws BoshException {
-        validateKeyword(keyword);
-        List<Task> matchingTasks = findMatchingTasks(keyword);
-        displaySearchResults(matchingTasks);
+    private void deletePositions(BitSet positions) {
+        int[] deleted = positions.stream().toArray();
+        List<Task> removed = removePositions(positions);
+        if (!removed.isEmpty()) {
+            history.recordCommand(History.Step.insert("deleting " + removed.size() + " task(s)", deleted, removed));
+        }
+        displayBulkSummary("Noted. I've removed " + removed.size() + " task(s):", removed);
     }
 
-    // ========== Sorting Methods ==========
+    /**
+     * Removes the tasks at the given positions in one compacting pass and saves once.
+     *
+     * @return the removed tasks, in list order
+     */
+    private List<Task> removePositions(BitSet positions) {
+        List<Task> removed = new ArrayList<>(positions.cardinality());
+        for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+            Task task = tasks.get(i);
+            removed.add(task);
+            statsReplaced(task, null);
+        }
+        List<Mutation> batch = new ArrayList<>(removed.size());
+        // Later positions first, so each logged delete's index is still valid when replayed in order
+        for (int i = positions.previousSetBit(tasks.size() - 1); i >= 0; i = positions.previousSetBit(i - 1)) {
+            batch.add(Mutation.delete(i));
+            indexRemoved(i);
+        }
+
+        if (tasks instanceof CompactTaskList) {
+            ((CompactTaskList) tasks).removePositions(positions);
+        } else {
+            int kept = 0;
+            for (int i = 0; i < tasks.size(); i++) {
+                if (!positions.get(i)) {
+                    tasks.set(kept++, tasks.get(i));
+                }
+            }
+            tasks.subList(kept, tasks.size()).clear();
+        }
+        saveToStorage(batch);
+        return removed;
+    }
 
     /**
-     * Sorts tasks alphabetically by description.
+     * Sorts the list in place, remembering where every task was so the sort can be undone.
      */
-    public void sortByDescription() {
-        tasks.sort(createDescriptionComparator());
-        displaySortConfirmation("description");
-        saveToStorage();
+    private void sortBy(Function<Task, SortKey> keyOf, String sortBy) {
+        DataFileLock.Hold hold = beginChange();
+        try {
+            int[] previousPositions = SortKey.sort(tasks, keyOf);
+            invalidateIndexes();
+            history.recordCommand(History.Step.permute("sorting by " + sortBy, previousPositions));
+            displaySortConfirmation(sortBy);
+            saveToStorage();
+        } finally {
+            endChange(hold);
+        }
     }
 
+    // ========== Private Undo Methods ==========
+
     /**
-     * Sorts tasks by type (Todo, Deadline, Event).
+     * Applies a step from the history, saving what it changed.
+     *
+     * @return the step that reverses it
      */
-    public void sortByType() {
-        tasks.sort(createTypeComparator());
-        displaySortConfirmation("type");
-        saveToStorage();
+    private History.Step apply(History.Step step) {
+        int[] positions = step.getPositions();
+        switch (step.getKind()) {
+            case INSERT:
+                insertPositions(positions, step.getTasks());
+                return History.Step.remove(step.getLabel(), positions);
+            case REMOVE:
+                BitSet removed = new BitSet(tasks.size());
+                for (int position : positions) {
+                    removed.set(position);
+                }
+                return History.Step.insert(step.getLabel(), positions, removePositions(removed));
+            case REPLACE:
+                return History.Step.replace(step.getLabel(), positions, replaceTasks(positions, step.getTasks()));
+            default:
+                return History.Step.permute(step.getLabel(), permute(positions));
+        }
     }
 
     /**
-     * Sorts tasks by deadline date. Tasks without dates come last.
+     * Puts tasks back at the given positions in one pass and saves once. Tasks put back at the
+     * end keep the indexes up to date; anywhere else the indexes are rebuilt when next needed.
+     *
+     * @param positions 0-based positions the tasks occupy afterwards, ascending
      */
-    public void sortByDeadline() {
-        tasks.sort(createDeadlineComparator());
-        displaySortConfirmation("deadline");
-        saveToStorage();
+    private void insertPositions(int[] positions, List<Task> inserted) {
+        boolean isAtEnd = positions[0] >= tasks.size();
+        if (tasks instanceof CompactTaskList) {
+            ((CompactTaskList) tasks).insertAll(positions, inserted);
+        } else if (positions.length == 1) {
+            tasks.add(positions[0], inserted.get(0));
+        } else {
+            Task[] merged = new Task[tasks.size() + positions.length];
+            int next = 0;
+            int from = 0;
+            for (int to = 0; to < merged.length; to++) {
+                merged[to] = next < positions.length && positions[next] == to ? inserted.get(next++) : tasks.get(from++);
+            }
+            tasks.clear();
+            tasks.addAll(Arrays.asList(merged));
+        }
+
+        List<Mutation> batch = new ArrayList<>(positions.length);
+        for (int i = 0; i < positions.length; i++) {
+            batch.add(Mutation.insert(positions[i], inserted.get(i)));
+            statsReplaced(null, inserted.get(i));
+            if (isAtEnd) {
+                indexAppended(inserted.get(i));
+            }
+        }
+        if (!isAtEnd) {
+            invalidateIndexes();
+        }
+        saveToStorage(batch);
     }
 
     /**
-     * Sorts tasks by completion status (incomplete tasks first).
+     * Puts other versions of tasks in place and saves once.
+     *
+     * @return the versions that were replaced, in the same order
      */
-    public void sortByStatus() {
-        tasks.sort(createStatusComparator());
-        displaySortConfirmation("status");
-        saveToStorage();
+    private List<Task> replaceTasks(int[] positions, List<Task> replacements) {
+        List<Task> replaced = new ArrayList<>(positions.length);
+        List<Mutation> batch = new ArrayList<>(positions.length);
+        for (int i = 0; i < positions.length; i++) {
+            Task task = replacements.get(i);
+            replaced.add(tasks.set(positions[i], task));
+            indexUpdated(positions[i], task);
+            statsReplaced(replaced.get(i), task);
+            batch.add(Mutation.status(positions[i], task.isDone));
+        }
+        saveToStorage(batch);
+        return replaced;
     }
 
     /**
-     * Returns the number of tasks in the list.
+     * Moves the task at each position {@code i} to {@code destinations[i]} and saves the whole list, as a sort does.
+     *
+     * @return the destinations that move every task back
      */
-    public int size() {
-        return tasks.size();
+    private int[] permute(int[] destinations) {
+        Task[] current = tasks.toArray(new Task[0]);
+        int[] inverse = new int[destinations.length];
+        for (int i = 0; i < destinations.length; i++) {
+            tasks.set(destinations[i], current[i]);
+            inverse[destinations[i]] = i;
+        }
+        invalidateIndexes();
+        saveToStorage();
+        return inverse;
     }
 
     // ========== Private Validation Methods ==========
@@ -162,6 +1072,15 @@ public class TaskList {
         }
     }
 
+    /**
+     * Validates every index before anything is changed.
+     */
+    private void validateTaskIndexes(int[] indexes) throws BoshException {
+        for (int index : indexes) {
+            validateTaskIndex(index);
+        }
+    }
+
     /**
      * Checks if an index is out of valid range.
      */
@@ -185,100 +1104,288 @@ public class TaskList {
         }
     }
 
-    // ========== Private Search Methods ==========
+    // ========== Private Archive Methods ==========
 
     /**
-     * Finds all tasks that match the given keyword.
+     * Appends matching tasks to the archive, then removes them from the list and saves it.
      */
-    private List<Task> findMatchingTasks(String keyword) {
-        String lowerCaseKeyword = keyword.toLowerCase();
-        List<Task> matchingTasks = new ArrayList<>();
+    private int archiveWhere(Predicate<Task> filter) throws BoshException {
+        requireStorage();
+        DataFileLock.Hold hold = beginChange();
+        try {
+            List<Task> archived = new ArrayList<>();
+            for (Task task : tasks) {
+                if (filter.test(task)) {
+                    archived.add(task);
+                }
+            }
+            if (archived.isEmpty()) {
+                return 0;
+            }
 
-        for (Task task : tasks) {
-            if (taskContainsKeyword(task, lowerCaseKeyword)) {
-                matchingTasks.add(task);
+            try {
+                storage.archive(archived);
+            } catch (IOException e) {
+                throw new BoshException("Could not archive tasks: " + e.getMessage());
             }
+            tasks.removeIf(filter);
+            invalidateIndexes();
+            for (Task task : archived) {
+                statsReplaced(task, null);
+            }
+            history.clear(); // undoing around the archive would lose or duplicate tasks
+            saveToStorage();
+            return archived.size();
+        } finally {
+            endChange(hold);
+        }
+    }
+
+    private List<Task> loadArchive() throws BoshException {
+        requireStorage();
+        try {
+            return storage.loadArchive();
+        } catch (IOException e) {
+            throw new BoshException("Could not read the archive: " + e.getMessage());
+        }
+    }
+
+    private void requireStorage() throws BoshException {
+        if (storage == null) {
+            throw new BoshException("The archive is only available when tasks are saved to a file.");
         }
-        return matchingTasks;
     }
 
     /**
-     * Checks if a task's description contains the keyword.
+     * Checks if a task is a deadline due before the given day.
      */
-    private boolean taskContainsKeyword(Task task, String lowerCaseKeyword) {
-        return task.getDescription().toLowerCase().contains(lowerCaseKeyword);
+    private boolean isDueBefore(Task task, LocalDate cutoff) {
+        if (!hasDeadlineDate(task)) {
+            return false;
+        }
+        Deadline deadline = (Deadline) task;
+        LocalDate due = deadline.dateTime != null ? deadline.dateTime.toLocalDate() : deadline.date;
+        return due.isBefore(cutoff);
     }
 
-    // ========== Private Comparator Factory Methods ==========
+    // ========== Private Index Methods ==========
 
     /**
-     * Creates a comparator for sorting by description.
+     * Keeps the search indexes and sorted views up to date with a task appended to the list.
      */
-    private Comparator<Task> createDescriptionComparator() {
-        return Comparator.comparing(task -> task.getDescription().toLowerCase());
+    private void indexAppended(Task task) {
+        if (wordIndex != null) {
+            wordIndex.append(task.getDescription());
+        }
+        if (trigramIndex != null) {
+            trigramIndex.append(task.getDescription());
+        }
+        if (sortedViews != null) {
+            sortedViews.append(task);
+        }
+        if (taskIds != null) {
+            taskIds.append(task.getId());
+        }
+        if (dateIndex != null) {
+            dateIndex.append(task);
+        }
+        if (eventIndex != null) {
+            eventIndex.append(task);
+        }
     }
 
     /**
-     * Creates a comparator for sorting by task type.
+     * Keeps the sorted views, date index and snapshot chunks up to date with a task changed in place.
      */
-    private Comparator<Task> createTypeComparator() {
-        return (t1, t2) -> {
-            int priority1 = getTypePriority(t1);
-            int priority2 = getTypePriority(t2);
+    private void indexUpdated(int position, Task task) {
+        if (publisher != null) {
+            publisher.changed(position);
+        }
+        if (sortedViews != null) {
+            sortedViews.update(position, task);
+        }
+        if (dateIndex != null) {
+            dateIndex.update(position, task);
+        }
+    }
 
-            if (priority1 != priority2) {
-                return Integer.compare(priority1, priority2);
+    /**
+     * Keeps the search indexes, sorted views and snapshot chunks up to date with a task removed from the list.
+     */
+    private void indexRemoved(int position) {
+        if (publisher != null) {
+            publisher.shifted(position);
+        }
+        if (wordIndex != null) {
+            wordIndex.remove(position);
+            if (wordIndex.isWorthRebuilding()) {
+                wordIndex = null;
+            }
+        }
+        if (trigramIndex != null) {
+            trigramIndex.remove(position);
+            if (trigramIndex.isWorthRebuilding()) {
+                trigramIndex = null;
+            }
+        }
+        if (sortedViews != null) {
+            sortedViews.remove(position);
+            if (sortedViews.isWorthRebuilding()) {
+                sortedViews = null;
+            }
+        }
+        if (taskIds != null) {
+            taskIds.remove(position);
+            if (taskIds.isWorthRebuilding()) {
+                taskIds = null;
+            }
+        }
+        if (dateIndex != null) {
+            dateIndex.remove(position);
+            if (dateIndex.isWorthRebuilding()) {
+                dateIndex = null;
+            }
+        }
+        if (eventIndex != null) {
+            eventIndex.remove(position);
+            if (eventIndex.isWorthRebuilding()) {
+                eventIndex = null;
             }
-            // If same type, sort by description
-            return t1.getDescription().compareToIgnoreCase(t2.getDescription());
-        };
+        }
     }
 
     /**
-     * Creates a comparator for sorting by deadline date.
+     * Keeps the statistics up to date with a task that was added (no previous task),
+     * removed (no new task) or replaced. Positions do not matter to them.
      */
-    private Comparator<Task> createDeadlineComparator() {
-        return (t1, t2) -> {
-            boolean t1HasDate = hasDeadlineDate(t1);
-            boolean t2HasDate = hasDeadlineDate(t2);
+    private void statsReplaced(Task previous, Task task) {
+        if (stats == null) {
+            return;
+        }
+        if (previous == null) {
+            stats.added(task);
+        } else if (task == null) {
+            stats.removed(previous);
+        } else {
+            stats.replaced(previous, task);
+        }
+    }
+
+    /**
+     * Discards the search indexes, sorted views, id index, date index and event index after the list
+     * was reordered; they are rebuilt when next needed. The next snapshot is copied in full.
+     */
+    private void invalidateIndexes() {
+        if (publisher != null) {
+            publisher.changedAll();
+        }
+        wordIndex = null;
+        trigramIndex = null;
+        sortedViews = null;
+        taskIds = null;
+        dateIndex = null;
+        eventIndex = null;
+    }
 
-            // Tasks with dates come first
-            if (t1HasDate && !t2HasDate) return -1;
-            if (!t1HasDate && t2HasDate) return 1;
+    private DateIndex getDateIndex() {
+        if (dateIndex == null) {
+            dateIndex = DateIndex.build(tasks);
+        }
+        return dateIndex;
+    }
 
-            if (!t1HasDate && !t2HasDate) {
-                return t1.getDescription().compareToIgnoreCase(t2.getDescription());
-            }
+    private EventIndex getEventIndex() {
+        if (eventIndex == null) {
+            eventIndex = EventIndex.build(tasks);
+        }
+        return eventIndex;
+    }
+
+    /**
+     * Finds the scheduled events that overlap a task about to be added, if it is a scheduled event itself.
+     */
+    private int[] findOverlapping(Task task) {
+        if (!(task instanceof Event) || !((Event) task).isScheduled()) {
+            return new int[0];
+        }
+        Event event = (Event) task;
+        return getEventIndex().positionsOverlapping(EventIndex.secondsOf(event.start),
+                EventIndex.secondsOf(event.end), MAX_TASKS_IN_SUMMARY + 1);
+    }
+
+    private int[] findEventsOn(LocalDate day) {
+        return getEventIndex().positionsOverlapping(EventIndex.secondsOf(day.atStartOfDay()),
+                EventIndex.secondsOf(day.plusDays(1).atStartOfDay()), Integer.MAX_VALUE);
+    }
+
+    private static String formatSlot(LocalDateTime from, LocalDateTime to, LocalDateTime dayEnd) {
+        return from.format(SLOT_FORMAT) + " - " + (to.equals(dayEnd) ? "24:00" : to.format(SLOT_FORMAT));
+    }
+
+    private static int[] concat(int[] first, int[] second) {
+        int[] both = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, both, first.length, second.length);
+        return both;
+    }
 
-            return compareDeadlineDates(t1, t2);
-        };
+    /**
+     * Checks whether a task in the list already has the given id.
+     */
+    private boolean isIdInUse(int id) {
+        if (taskIds == null) {
+            taskIds = TaskIds.build(tasks);
+        }
+        return taskIds.positionOf(id) >= 0;
     }
 
+    // ========== Private Search Methods ==========
+
     /**
-     * Creates a comparator for sorting by completion status.
+     * Finds all tasks that match the given keyword. Keywords of three or more characters
+     * only check the tasks the trigram index suggests; shorter ones scan the list.
      */
-    private Comparator<Task> createStatusComparator() {
-        return (t1, t2) -> {
-            if (t1.isDone != t2.isDone) {
-                // Incomplete tasks (false) come first
-                return Boolean.compare(t1.isDone, t2.isDone);
+    private List<Task> findMatchingTasks(String keyword) {
+        String lowerCaseKeyword = keyword.toLowerCase();
+        List<Task> matchingTasks = new ArrayList<>();
+
+        if (lowerCaseKeyword.length() >= TrigramIndex.MIN_QUERY_LENGTH) {
+            if (trigramIndex == null) {
+                trigramIndex = TrigramIndex.build(tasks);
             }
-            return t1.getDescription().compareToIgnoreCase(t2.getDescription());
-        };
+            for (int position : trigramIndex.findCandidates(lowerCaseKeyword)) {
+                Task task = tasks.get(position);
+                if (taskContainsKeyword(task, lowerCaseKeyword)) {
+                    matchingTasks.add(task);
+                }
+            }
+            return matchingTasks;
+        }
+
+        return scanForKeyword(tasks, lowerCaseKeyword);
     }
 
-    // ========== Private Sorting Helper Methods ==========
+    /**
+     * Finds the tasks that contain the keyword by checking each one.
+     */
+    private List<Task> scanForKeyword(List<Task> candidates, String lowerCaseKeyword) {
+        List<Task> matchingTasks = new ArrayList<>();
+        for (Task task : candidates) {
+            if (taskContainsKeyword(task, lowerCaseKeyword)) {
+                matchingTasks.add(task);
+            }
+        }
+        return matchingTasks;
+    }
 
     /**
-     * Gets the priority value for task type ordering.
+     * Checks if a task's description contains the keyword.
      */
-    private int getTypePriority(Task task) {
-        if (task instanceof Todo) return 1;
-        if (task instanceof Deadline) return 2;
-        if (task instanceof Event) return 3;
-        return 4; // Unknown types come last
+    private boolean taskContainsKeyword(Task task, String lowerCaseKeyword) {
+        return task.getDescription().toLowerCase().contains(lowerCaseKeyword);
     }
 
+    // ========== Private Sorting Helper Methods ==========
+
     /**
      * Checks if a task is a deadline with a valid date.
      */
@@ -288,54 +1395,76 @@ public class TaskList {
         return deadline.date != null || deadline.dateTime != null;
     }
 
+    // ========== Private Display Methods ==========
+
     /**
-     * Compares two deadline tasks by their dates.
+     * Displays the complete task list with numbering.
      */
-    private int compareDeadlineDates(Task t1, Task t2) {
-        Deadline d1 = (Deadline) t1;
-        Deadline d2 = (Deadline) t2;
-
-        if (d1.dateTime != null && d2.dateTime != null) {
-            return d1.dateTime.compareTo(d2.dateTime);
+    private void displayTaskList(List<Task> shown) {
+        TaskPrinter printer = TaskPrinter.start().line("Here are the tasks in your list: ");
+        for (int i = 0; i < shown.size(); i++) {
+            printer.task(i + FIRST_TASK_INDEX, shown.get(i));
         }
-        if (d1.dateTime != null && d2.date != null) {
-            return d1.dateTime.toLocalDate().compareTo(d2.date);
+        printer.print();
+    }
+
+    /**
+     * Displays one page of the list under the tasks' usual numbers, saying which tasks it shows.
+     */
+    private void displayTaskPage(List<Task> shown, int offset, int count) throws BoshException {
+        if (offset > 0 && offset >= shown.size()) {
+            throw new BoshException("There are only " + shown.size() + " tasks in your list.");
         }
-        if (d1.date != null && d2.dateTime != null) {
-            return d1.date.compareTo(d2.dateTime.toLocalDate());
+
+        int end = (int) Math.min(shown.size(), (long) offset + count);
+        TaskPrinter printer = TaskPrinter.start().line("Here are the tasks in your list: ");
+        for (int i = offset; i < end; i++) {
+            printer.task(i + FIRST_TASK_INDEX, shown.get(i));
         }
-        if (d1.date != null && d2.date != null) {
-            return d1.date.compareTo(d2.date);
+        if (end > offset) {
+            printer.line("(tasks " + (offset + FIRST_TASK_INDEX) + "-" + end + " of " + shown.size() + ")");
         }
-
-        return d1.getDescription().compareToIgnoreCase(d2.getDescription());
+        printer.print();
     }
 
-    // ========== Private Display Methods ==========
-
     /**
-     * Displays the complete task list with numbering.
+     * Displays deadlines found by a date query under their usual numbers.
      */
-    private void displayTaskList() {
-        printDivider();
-        System.out.println("Here are the tasks in your list: ");
+    private void displayDeadlines(String header, int[] positions) {
+        TaskPrinter printer = TaskPrinter.start().line(header);
+        for (int position : positions) {
+            printer.task(position + FIRST_TASK_INDEX, tasks.get(position));
+        }
+        if (positions.length == 0) {
+            printer.line("No matching deadlines.");
+        }
+        printer.print();
+    }
 
-        for (int i = 0; i < tasks.size(); i++) {
-            int displayIndex = i + FIRST_TASK_INDEX;
-            System.out.println(displayIndex + "." + tasks.get(i));
+    /**
+     * Warns that a newly added event overlaps others, listing the first few.
+     */
+    private void displayOverlapWarning(int[] positions) {
+        List<String> lines = new ArrayList<>();
+        lines.add("Heads up, this overlaps with:");
+        for (int i = 0; i < Math.min(positions.length, MAX_TASKS_IN_SUMMARY); i++) {
+            lines.add("  " + (positions[i] + FIRST_TASK_INDEX) + "." + tasks.get(positions[i]));
+        }
+        if (positions.length > MAX_TASKS_IN_SUMMARY) {
+            lines.add("  ... and more");
         }
-        printDivider();
+        Ui.box(lines.toArray(new String[0]));
     }
 
     /**
      * Displays confirmation message after adding a task.
      */
     private void displayAddConfirmation(Task task) {
-        printDivider();
-        System.out.println("Got it. I've added this task:");
-        System.out.println(task);
-        System.out.println("Now you have " + tasks.size() + " tasks in the list.");
-        printDivider();
+        TaskPrinter.start()
+                .line("Got it. I've added this task (#" + task.getId() + "):")
+                .task(task)
+                .line("Now you have " + tasks.size() + " tasks in the list.")
+                .print();
     }
 
     /**
@@ -357,18 +1486,31 @@ public class TaskList {
         );
     }
 
+    /**
+     * Displays one summary for a bulk change, listing the first few tasks it touched.
+     */
+    private void displayBulkSummary(String message, List<Task> changed) {
+        List<String> lines = new ArrayList<>();
+        lines.add(message);
+        for (int i = 0; i < Math.min(MAX_TASKS_IN_SUMMARY, changed.size()); i++) {
+            lines.add("  " + changed.get(i));
+        }
+        if (changed.size() > MAX_TASKS_IN_SUMMARY) {
+            lines.add("  ... and " + (changed.size() - MAX_TASKS_IN_SUMMARY) + " more");
+        }
+        lines.add("Now you have " + tasks.size() + " tasks in the list.");
+        Ui.box(lines.toArray(new String[0]));
+    }
+
     /**
      * Displays search results with numbering.
      */
     private void displaySearchResults(List<Task> matchingTasks) {
-        printDivider();
-        System.out.println("Here are the matching tasks in your list:");
-
+        TaskPrinter printer = TaskPrinter.start().line("Here are the matching tasks in your list:");
         for (int i = 0; i < matchingTasks.size(); i++) {
-            int displayIndex = i + FIRST_TASK_INDEX;
-            System.out.println(displayIndex + "." + matchingTasks.get(i));
+            printer.task(i + FIRST_TASK_INDEX, matchingTasks.get(i));
         }
-        printDivider();
+        printer.print();
     }
 
     /**
@@ -376,25 +1518,84 @@ public class TaskList {
      */
     private void displaySortConfirmation(String sortBy) {
         Ui.box("Tasks have been sorted by " + sortBy + "!");
-        displayTaskList();
+        displayTaskList(tasks);
+    }
+
+    /**
+     * Formats the statistics line of one task type.
+     */
+    private String describeCount(String label, TaskType type, String extra) {
+        return label + ": " + stats.count(type) + " (" + stats.count(type, true) + " done, "
+                + stats.count(type, false) + " pending" + extra + ")";
     }
 
     /**
-     * Prints the divider line for formatting.
+     * Names a task in an undo or redo message.
      */
-    private void printDivider() {
-        System.out.println(DIVIDER_LINE);
+    private static String quote(Task task) {
+        return "\"" + task.getDescription() + "\"";
     }
 
     // ========== Private Storage Methods ==========
 
+    /**
+     * Starts a change: locks a shared data file until {@link #endChange} and applies what other
+     * instances changed, so the change is made to the latest list and saved before anyone else writes.
+     */
+    private DataFileLock.Hold beginChange() {
+        DataFileLock.Hold hold = NO_HOLD;
+        if (storage != null) {
+            try {
+                hold = storage.lockForChange();
+            } catch (IOException e) {
+                Ui.error("Could not lock " + storage.getFile().getFileName() + ": " + e.getMessage());
+            }
+        }
+        reloadFromDisk();
+        return hold;
+    }
+
+    private void endChange(DataFileLock.Hold hold) {
+        try {
+            hold.close();
+        } catch (IOException e) {
+            Ui.error("Could not unlock " + storage.getFile().getFileName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Copies the list for a background save without building tasks of a compact list.
+     */
+    private List<Task> copyTasks() {
+        if (tasks instanceof CompactTaskList) {
+            return ((CompactTaskList) tasks).copy();
+        }
+        return new ArrayList<>(tasks);
+    }
+
+    /**
+     * Lets readers see the list as it is now, if concurrent reads are on. Every change
+     * ends by saving, so the save methods call this first.
+     */
+    private void publishSnapshot() {
+        if (publisher != null) {
+            snapshot = publisher.publish(tasks);
+        }
+    }
+
     /**
      * Persists the current task list to storage if available.
      */
     private void saveToStorage() {
+        publishSnapshot();
         if (storage == null) {
             return;
         }
+        if (saver != null) {
+            // A full rewrite must not overtake queued changes, so it goes through the saver too
+            saver.submitSnapshot();
+            return;
+        }
 
         try {
             storage.save(tasks);
@@ -402,4 +1603,41 @@ public class TaskList {
             Ui.error("Could not save tasks: " + e.getMessage());
         }
     }
+
+    /**
+     * Persists a single change if storage is available, letting storage
+     * decide whether to append it to its journal or rewrite the file.
+     */
+    private void saveToStorage(Mutation mutation) {
+        saveToStorage(List.of(mutation));
+    }
+
+    /**
+     * Persists a batch of changes with a single write if storage is available.
+     */
+    private void saveToStorage(List<Mutation> batch) {
+        publishSnapshot();
+        if (storage == null || batch.isEmpty()) {
+            return;
+        }
+        if (saver != null) {
+            for (Mutation mutation : batch) {
+                saver.submit(mutation);
+            }
+            return;
+        }
+
+        try {
+            storage.recordAll(tasks, batch);
+        } catch (IOException e) {
+            Ui.error("Could not save tasks: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Calls on the list to run together, see {@link #runAsOneChange(Command)}.
+     */
+    public interface Command {
+        void run() throws BoshException;
+    }
 }
@@ -0,0 +1,105 @@
+package duke;
+
+/**
+ * Builds a listing of numbered tasks in a reusable buffer and writes it to standard output
+ * in one call, instead of one synchronized, flushing {@code println} per task. Tasks append
+ * themselves to the buffer (see {@link Task#appendTo(StringBuilder)}) without building a
+ * string each.
+ *
+ * <p>Each thread keeps one spare buffer, so readers listing a snapshot at the same time do not
+ * share one. A listing takes the spare buffer and hands it back once printed; a listing started
+ * while the spare is taken, such as a message box shown midway through another, gets a buffer of
+ * its own. A listing abandoned by an exception never hands its buffer back, so the next listing
+ * starts a new spare instead of finding leftover text. A buffer that grew very large for one
+ * listing is dropped afterwards rather than kept.</p>
+ */
+public class TaskPrinter {
+    private static final String DIVIDER_LINE = "____________________________________________________________";
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    private static final int INITIAL_CAPACITY = 8 * 1024;
+    private static final int MAX_KEPT_CAPACITY = 1 << 20;
+    private static final ThreadLocal<StringBuilder> SPARE_BUFFERS = new ThreadLocal<>();
+
+    private final StringBuilder buffer;
+
+    private TaskPrinter(StringBuilder buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Starts a listing in this thread's buffer, opening it with a divider line.
+     *
+     * @return printer to add the listing's lines to
+     */
+    public static TaskPrinter start() {
+        StringBuilder buffer = SPARE_BUFFERS.get();
+        if (buffer == null) {
+            buffer = new StringBuilder(INITIAL_CAPACITY); // first listing, or the spare is in use
+        } else {
+            SPARE_BUFFERS.remove();
+        }
+        return new TaskPrinter(buffer).line(DIVIDER_LINE);
+    }
+
+    /**
+     * Adds a line of text.
+     */
+    public TaskPrinter line(String text) {
+        buffer.append(text).append(LINE_SEPARATOR);
+        return this;
+    }
+
+    /**
+     * Adds a task under its number, as in {@code 3.[T][ ] read book}.
+     *
+     * @param number 1-based number shown before the task
+     * @param task task to show
+     */
+    public TaskPrinter task(int number, Task task) {
+        return task("", number, task);
+    }
+
+    /**
+     * Adds a task under its number after some text, as in {@code   overlaps 3.[E][ ] meeting ...}.
+     *
+     * @param prefix text before the number, such as an indent
+     * @param number 1-based number shown before the task
+     * @param task task to show
+     */
+    public TaskPrinter task(String prefix, int number, Task task) {
+        buffer.append(prefix).append(number).append('.');
+        task.appendTo(buffer).append(LINE_SEPARATOR);
+        return this;
+    }
+
+    /**
+     * Adds a task on a line of its own, without a number.
+     */
+    public TaskPrinter task(Task task) {
+        task.appendTo(buffer).append(LINE_SEPARATOR);
+        return this;
+    }
+
+    /**
+     * Adds a task under its number and id, as in {@code 3.#12 [T][ ] read book}.
+     */
+    public TaskPrinter taskWithId(int number, Task task) {
+        buffer.append(number).append(".#").append(task.getId()).append(' ');
+        task.appendTo(buffer).append(LINE_SEPARATOR);
+        return this;
+    }
+
+    /**
+     * Closes the listing with a divider line and writes it out in one call.
+     * The printer must not be used afterwards.
+     */
+    public void print() {
+        line(DIVIDER_LINE);
+        System.out.print(buffer);
+        System.out.flush();
+        if (buffer.capacity() <= MAX_KEPT_CAPACITY) {
+            buffer.setLength(0);
+            SPARE_BUFFERS.set(buffer);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package duke;
+
+import java.time.LocalDateTime;
+import java.util.TreeMap;
+
+/**
+ * Counts of the tasks in the list by type and status, and of the pending deadlines that
+ * are overdue, kept up to date as tasks come and go so reading them does not scan the list.
+ * The order of the list does not matter, so sorts leave the counts alone.
+ *
+ * <p>Which deadlines are overdue changes as time passes. The pending deadlines with a date
+ * are counted by due key (see {@link SortKey#dueKey(Task)}), along with how many fall before
+ * the cutoff of the last query; a later query moves the cutoff forward over just the
+ * deadlines that have passed in between, so each deadline is passed over once.</p>
+ */
+public class TaskStats {
+    private final int[][] counts = new int[TaskType.values().length][2];
+    private final TreeMap<Long, Integer> pendingDues = new TreeMap<>();
+    private long cutoff = Long.MIN_VALUE;
+    private int beforeCutoff;
+
+    /**
+     * Counts the given tasks.
+     *
+     * @param tasks tasks to count
+     * @return counts of the tasks
+     */
+    public static TaskStats build(Iterable<Task> tasks) {
+        TaskStats stats = new TaskStats();
+        for (Task task : tasks) {
+            stats.added(task);
+        }
+        return stats;
+    }
+
+    /**
+     * Counts a task that joined the list.
+     */
+    public void added(Task task) {
+        counts[task.type.ordinal()][task.isDone ? 1 : 0]++;
+        long due = pendingDueKey(task);
+        if (due != Long.MAX_VALUE) {
+            pendingDues.merge(due, 1, Integer::sum);
+            if (due < cutoff) {
+                beforeCutoff++;
+            }
+        }
+    }
+
+    /**
+     * Stops counting a task that left the list.
+     */
+    public void removed(Task task) {
+        counts[task.type.ordinal()][task.isDone ? 1 : 0]--;
+        long due = pendingDueKey(task);
+        if (due != Long.MAX_VALUE) {
+            pendingDues.computeIfPresent(due, (key, count) -> count == 1 ? null : count - 1);
+            if (due < cutoff) {
+                beforeCutoff--;
+            }
+        }
+    }
+
+    /**
+     * Counts a task that took the place of another, e.g. the same task with a new status.
+     */
+    public void replaced(Task previous, Task task) {
+        removed(previous);
+        added(task);
+    }
+
+    /**
+     * Returns the number of tasks of the given type and status.
+     */
+    public int count(TaskType type, boolean isDone) {
+        return counts[type.ordinal()][isDone ? 1 : 0];
+    }
+
+    /**
+     * Returns the number of tasks of the given type.
+     */
+    public int count(TaskType type) {
+        return count(type, false) + count(type, true);
+    }
+
+    /**
+     * Returns the number of pending deadlines that have passed, counted the way
+     * {@link TaskList#overdue()} lists them: a deadline without a time is overdue once its day is over.
+     *
+     * @param now the current time
+     */
+    public int overdue(LocalDateTime now) {
+        moveCutoff(SortKey.dueKey(now));
+        return beforeCutoff - pendingDues.getOrDefault(SortKey.startOfDay(now.toLocalDate()), 0);
+    }
+
+    // ========== Private Methods ==========
+
+    private void moveCutoff(long newCutoff) {
+        if (newCutoff > cutoff) {
+            for (int count : pendingDues.subMap(cutoff, newCutoff).values()) {
+                beforeCutoff += count;
+            }
+        } else {
+            for (int count : pendingDues.subMap(newCutoff, cutoff).values()) {
+                beforeCutoff -= count; // the clock went back
+            }
+        }
+        cutoff = newCutoff;
+    }
+
+    private static long pendingDueKey(Task task) {
+        return task.isDone ? Long.MAX_VALUE : SortKey.dueKey(task);
+    }
+}
@@ -4,4 +4,9 @@ public class Todo extends Task {
     public Todo(String description) {
         super(description, TaskType.TODO);
     }
+
+    @Override
+    protected Task copy() {
+        return new Todo(description);
+    }
 }
@@ -0,0 +1,94 @@
+package duke;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index from every run of three characters in the lower-cased descriptions to the tasks
+ * containing it, so substring searches only look at tasks that contain all of the query's
+ * trigrams. Candidates still need checking, since sharing trigrams does not guarantee that
+ * they appear next to each other.
+ *
+ * <p>Ids and deletes work as in {@link WordIndex}; changes that reorder the list discard the index.</p>
+ */
+public class TrigramIndex {
+    public static final int MIN_QUERY_LENGTH = 3;
+
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final LivePositions live = new LivePositions();
+
+    /**
+     * Builds an index over the tasks, in list order.
+     *
+     * @param tasks tasks to index
+     * @return index of the tasks
+     */
+    public static TrigramIndex build(List<Task> tasks) {
+        TrigramIndex index = new TrigramIndex();
+        for (Task task : tasks) {
+            index.append(task.getDescription());
+        }
+        return index;
+    }
+
+    /**
+     * Indexes a task added at the end of the list.
+     *
+     * @param description the new task's description
+     */
+    public void append(String description) {
+        int id = live.append();
+        String text = description.toLowerCase();
+        for (int i = 0; i + MIN_QUERY_LENGTH <= text.length(); i++) {
+            postings.computeIfAbsent(trigram(text, i), t -> new PostingList()).addIfLast(id);
+        }
+    }
+
+    /**
+     * Forgets the task at the given position; later tasks move up by one.
+     *
+     * @param position 0-based position of the removed task
+     */
+    public void remove(int position) {
+        live.remove(position);
+    }
+
+    /**
+     * Returns whether enough tasks were deleted that rebuilding would make queries noticeably cheaper.
+     */
+    public boolean isWorthRebuilding() {
+        return live.isWorthRebuilding();
+    }
+
+    /**
+     * Finds the tasks whose lower-cased description contains every trigram of the query.
+     * Every task that contains the query is among them; callers check each candidate.
+     *
+     * @param lowerCaseQuery lower-cased query of at least {@link #MIN_QUERY_LENGTH} characters
+     * @return 0-based positions of candidate tasks, ascending
+     */
+    public int[] findCandidates(String lowerCaseQuery) {
+        assert lowerCaseQuery.length() >= MIN_QUERY_LENGTH : "Query too short for trigrams";
+
+        List<PostingList> lists = new ArrayList<>();
+        for (int i = 0; i + MIN_QUERY_LENGTH <= lowerCaseQuery.length(); i++) {
+            PostingList posting = postings.get(trigram(lowerCaseQuery, i));
+            if (posting == null) {
+                return new int[0];
+            }
+            if (!lists.contains(posting)) {
+                lists.add(posting);
+            }
+        }
+        return PostingList.intersect(lists, live);
+    }
+
+    /**
+     * Packs the three characters starting at {@code i} into one key.
+     */
+    private static Long trigram(String text, int i) {
+        return ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+    }
+}
@@ -12,11 +12,11 @@ public class Ui {
             return; // Nothing to display
         }
 
-        System.out.println("____________________________________________________________");
+        TaskPrinter printer = TaskPrinter.start();
         for (String s : lines) {
-            System.out.println(s);
+            printer.line(s);
         }
-        System.out.println("____________________________________________________________");
+        printer.print();
     }
 
     /**
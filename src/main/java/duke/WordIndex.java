@@ -0,0 +1,157 @@
+package duke;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inverted index from lower-cased words to the tasks whose descriptions contain them.
+ *
+ * <p>Posting lists hold ids that grow with list position (see {@link LivePositions}), so
+ * matches come out in list order without sorting. Deleted ids stay in the posting lists
+ * until the index is rebuilt. Changes that reorder the list, such as a sort, are not
+ * tracked: the owner discards the index and builds a new one when next needed.</p>
+ *
+ * <p>The distinct words are also kept in a {@link BkTree}, so a search that tolerates typos
+ * compares the query against a few words near it rather than against every description.</p>
+ */
+public class WordIndex {
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final BkTree dictionary = new BkTree();
+    private final LivePositions live = new LivePositions();
+
+    /**
+     * Builds an index over the tasks, in list order.
+     *
+     * @param tasks tasks to index
+     * @return index of the tasks
+     */
+    public static WordIndex build(List<Task> tasks) {
+        WordIndex index = new WordIndex();
+        for (Task task : tasks) {
+            index.append(task.getDescription());
+        }
+        return index;
+    }
+
+    /**
+     * Splits a description or query into lower-cased words of letters and digits.
+     *
+     * @param text text to split
+     * @return words in order, possibly with repeats
+     */
+    public static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean isWordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (isWordChar && start < 0) {
+                start = i;
+            } else if (!isWordChar && start >= 0) {
+                words.add(text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Indexes a task added at the end of the list.
+     *
+     * @param description the new task's description
+     */
+    public void append(String description) {
+        int id = live.append();
+        for (String word : words(description)) {
+            PostingList posting = postings.get(word);
+            if (posting == null) {
+                posting = new PostingList();
+                postings.put(word, posting);
+                dictionary.add(word);
+            }
+            posting.addIfLast(id);
+        }
+    }
+
+    /**
+     * Forgets the task at the given position; later tasks move up by one.
+     *
+     * @param position 0-based position of the removed task
+     */
+    public void remove(int position) {
+        live.remove(position);
+    }
+
+    /**
+     * Returns whether enough tasks were deleted that rebuilding would make queries noticeably cheaper.
+     */
+    public boolean isWorthRebuilding() {
+        return live.isWorthRebuilding();
+    }
+
+    /**
+     * Finds the tasks containing every word of the query.
+     *
+     * @param query words to look for; other characters are ignored
+     * @return 0-based positions of matching tasks, ascending
+     */
+    public int[] findAll(String query) {
+        List<PostingList> lists = new ArrayList<>();
+        for (String word : words(query)) {
+            PostingList posting = postings.get(word);
+            if (posting == null) {
+                return new int[0];
+            }
+            lists.add(posting);
+        }
+        return lists.isEmpty() ? new int[0] : PostingList.intersect(lists, live);
+    }
+
+    /**
+     * Finds the tasks that contain, for every word of the query, a word within a few typos of it.
+     *
+     * @param query words to look for; other characters are ignored
+     * @return 0-based positions of matching tasks, ascending
+     * @see #typosAllowed(String)
+     */
+    public int[] findFuzzy(String query) {
+        BitSet matching = null;
+        for (String word : words(query)) {
+            BitSet ids = new BitSet();
+            for (String near : dictionary.findWithin(word, typosAllowed(word))) {
+                PostingList posting = postings.get(near);
+                for (int i = 0; i < posting.size(); i++) {
+                    ids.set(posting.get(i));
+                }
+            }
+            if (matching == null) {
+                matching = ids;
+            } else {
+                matching.and(ids);
+            }
+        }
+        if (matching == null) {
+            return new int[0];
+        }
+
+        int[] positions = new int[matching.cardinality()];
+        int count = 0;
+        for (int id = matching.nextSetBit(0); id >= 0; id = matching.nextSetBit(id + 1)) {
+            if (live.isLive(id)) {
+                positions[count++] = live.positionOf(id);
+            }
+        }
+        return Arrays.copyOf(positions, count);
+    }
+
+    /**
+     * Returns how many typos a fuzzy search tolerates in a word: none up to two characters,
+     * one up to five, and two beyond, so that short words do not match nearly everything.
+     */
+    public static int typosAllowed(String word) {
+        return word.length() <= 2 ? 0 : word.length() <= 5 ? 1 : 2;
+    }
+}
@@ -0,0 +1,38 @@
+package duke;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+
+public class BackgroundSaverTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void burstOfCommands_coalescedIntoFewWrites() throws Exception {
+        Storage storage = new Storage(dir.resolve("bosh.txt"));
+        storage.enableJournal(1024 * 1024);
+        TaskList tl = new TaskList(storage.load(), storage);
+        tl.enableBackgroundSaving(10_000, 500);
+
+        TestSupport.silently(() -> {
+            for (int i = 0; i < 2000; i++) {
+                tl.add(new Todo("task " + i));
+            }
+            tl.mark(7);
+            tl.delete(1);
+        });
+
+        String report = tl.close();
+        assertTrue(report.startsWith("Saved 2002 changes in "), report);
+        assertTrue(report.endsWith("(0 pending)."), report);
+        int writes = Integer.parseInt(report.replaceAll(".* in (\\d+) writes.*", "$1"));
+        assertTrue(writes <= 5, report);
+
+        Storage reloaded = new Storage(dir.resolve("bosh.txt"));
+        reloaded.enableJournal(1024 * 1024);
+        assertEquals(1999, reloaded.load().size());
+    }
+}
@@ -0,0 +1,57 @@
+package duke;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class BkTreeTest {
+    @Test
+    void findWithin_matchesAScanOfEveryWord() {
+        Random random = new Random(25);
+        BkTree tree = new BkTree();
+        Set<String> words = new HashSet<>();
+        for (int i = 0; i < 2000; i++) {
+            String word = randomWord(random);
+            words.add(word);
+            tree.add(word);
+        }
+        assertEquals(words.size(), tree.size());
+
+        for (int i = 0; i < 200; i++) {
+            String query = randomWord(random);
+            int maxDistance = random.nextInt(3);
+            List<String> expected = new ArrayList<>();
+            for (String word : words) {
+                if (BkTree.distance(query, word) <= maxDistance) {
+                    expected.add(word);
+                }
+            }
+            assertEquals(new HashSet<>(expected), new HashSet<>(tree.findWithin(query, maxDistance)), query);
+        }
+    }
+
+    @Test
+    void distance_countsInsertionsDeletionsAndSubstitutions() {
+        assertEquals(0, BkTree.distance("book", "book"));
+        assertEquals(1, BkTree.distance("book", "books"));
+        assertEquals(1, BkTree.distance("book", "bok"));
+        assertEquals(1, BkTree.distance("book", "cook"));
+        assertEquals(2, BkTree.distance("retrun", "return"));
+        assertEquals(4, BkTree.distance("", "read"));
+        assertTrue(new BkTree().findWithin("read", 2).isEmpty());
+    }
+
+    private static String randomWord(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = 2 + random.nextInt(6);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(5)));
+        }
+        return word.toString();
+    }
+}
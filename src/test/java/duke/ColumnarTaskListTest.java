@@ -0,0 +1,133 @@
+package duke;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+public class ColumnarTaskListTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void randomChanges_matchAnArrayList() {
+        Random random = new Random(21);
+        List<Task> expected = new ArrayList<>();
+        ColumnarTaskList columns = new ColumnarTaskList();
+
+        for (int step = 0; step < 5000; step++) {
+            int choice = expected.isEmpty() ? 0 : random.nextInt(6);
+            if (choice <= 1) {
+                Task task = randomTask(random, step);
+                int position = random.nextInt(expected.size() + 1);
+                expected.add(position, task);
+                columns.add(position, task);
+            } else if (choice == 2) {
+                int position = random.nextInt(expected.size());
+                Task task = expected.get(position).withStatus(random.nextBoolean());
+                expected.set(position, task);
+                columns.set(position, task);
+            } else if (choice == 3) {
+                int position = random.nextInt(expected.size());
+                assertEquals(describe(expected.remove(position)), describe(columns.remove(position)));
+            } else if (choice == 4) {
+                BitSet positions = new BitSet();
+                for (int i = 0; i < expected.size(); i++) {
+                    if (random.nextInt(10) == 0) {
+                        positions.set(i);
+                    }
+                }
+                for (int i = positions.previousSetBit(expected.size() - 1); i >= 0; i = positions.previousSetBit(i - 1)) {
+                    expected.remove(i);
+                }
+                columns.removePositions(positions);
+            } else {
+                int[] positions = {random.nextInt(expected.size() + 1), expected.size() + 1};
+                List<Task> inserted = List.of(randomTask(random, step), randomTask(random, -step));
+                expected.add(positions[0], inserted.get(0));
+                expected.add(positions[1], inserted.get(1));
+                columns.insertAll(positions, inserted);
+            }
+        }
+
+        assertEquals(describe(expected), describe(columns));
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getId(), columns.idAt(i));
+        }
+    }
+
+    @Test
+    void changes_keepTextPoolSmallAndLeaveCopiesAlone() {
+        ColumnarTaskList columns = new ColumnarTaskList();
+        for (int i = 0; i < 1000; i++) {
+            columns.add(new Todo("task " + i));
+        }
+        int poolSize = columns.getPoolSize();
+        for (int i = 0; i < columns.size(); i++) {
+            columns.set(i, columns.get(i).withStatus(true));
+        }
+        assertEquals(poolSize, columns.getPoolSize(), "a status change reuses the text");
+
+        List<Task> copy = columns.copy();
+        List<String> before = describe(copy);
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < columns.size(); i++) {
+                columns.set(i, new Todo("renamed " + round + " " + i));
+            }
+        }
+        columns.add(new Todo("one more"));
+        copy.add(new Todo("in the copy"));
+        assertEquals(before, describe(copy).subList(0, before.size()));
+        int live = ColumnarTaskList.of(columns).getPoolSize();
+        assertTrue(columns.getPoolSize() <= 2 * live + 1024, "replaced text is compacted away");
+    }
+
+    @Test
+    void columnarStorage_runsCommandsAndSavesTheSameFile() throws Exception {
+        Path file = dir.resolve("bosh.txt");
+        Files.writeString(file, "T#1 | 0 | read book\nD#2 | 1 | return book | 2019-10-15\n"
+                + "D#3 | 0 | file taxes | next week\nE#4 | 0 | standup | 2025-01-06 0900 | 0930\n");
+        Storage storage = new Storage(file);
+        storage.setColumnar(true);
+        List<Task> loaded = storage.load();
+        assertTrue(loaded instanceof ColumnarTaskList);
+
+        TaskList tl = new TaskList(loaded, storage);
+        TestSupport.silently(() -> {
+            tl.mark(4);
+            tl.delete(1);
+            tl.add(new Event("lunch", "2025-01-06 0915", "1000"));
+            tl.sortByDeadline();
+            tl.undo();
+        });
+
+        assertEquals(List.of("D#2 | 1 | return book | 2019-10-15", "D#3 | 0 | file taxes | next week",
+                "E#4 | 1 | standup | 2025-01-06 0900 | 0930", "E#5 | 0 | lunch | 2025-01-06 0915 | 1000"),
+                Files.readAllLines(file));
+        assertEquals("[E][X] standup (from: Jan 6 2025 9:00AM to: 9:30AM)", loaded.get(2).toString());
+    }
+
+    private static Task randomTask(Random random, int id) {
+        Task task = TestSupport.randomTask(random);
+        task.setId(Math.abs(id));
+        return task;
+    }
+
+    private static String describe(Task task) {
+        return "#" + task.getId() + " " + task;
+    }
+
+    private static List<String> describe(List<Task> tasks) {
+        List<String> lines = new ArrayList<>();
+        for (Task task : tasks) {
+            lines.add(describe(task));
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,77 @@
+package duke;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+public class DateIndexTest {
+    @Test
+    void positionsBetween_matchesAScanAcrossAddsMarksAndDeletes() {
+        Random random = new Random(5);
+        List<Task> tasks = new ArrayList<>();
+        DateIndex index = DateIndex.build(tasks);
+
+        for (int step = 0; step < 4000; step++) {
+            int action = random.nextInt(4);
+            if (action < 2 || tasks.isEmpty()) {
+                Task task = TestSupport.randomTask(random);
+                tasks.add(task);
+                index.append(task);
+            } else if (action == 2) {
+                int position = random.nextInt(tasks.size());
+                tasks.remove(position);
+                index.remove(position);
+            } else {
+                int position = random.nextInt(tasks.size());
+                Task task = tasks.get(position);
+                if (task.isDone) {
+                    task.markAsUndone();
+                } else {
+                    task.markAsDone();
+                }
+                index.update(position, task);
+            }
+
+            if (step % 200 == 0) {
+                LocalDate from = TestSupport.FIRST_DAY.plusDays(random.nextInt(TestSupport.DAYS + 2) - 1);
+                long fromKey = SortKey.startOfDay(from);
+                long toKey = SortKey.startOfDay(from.plusDays(random.nextInt(5)));
+                assertArrayEquals(scan(tasks, fromKey, toKey), index.positionsBetween(fromKey, toKey, Integer.MAX_VALUE));
+                int[] all = scan(tasks, Long.MIN_VALUE, Long.MAX_VALUE);
+                assertArrayEquals(Arrays.copyOf(all, Math.min(3, all.length)),
+                        index.positionsBetween(Long.MIN_VALUE, Long.MAX_VALUE, 3));
+            }
+        }
+    }
+
+    @Test
+    void dueKey_putsDateOnlyDeadlinesFirstInTheirDay() {
+        long day = SortKey.dueKey(new Deadline("a", "2025-03-04"));
+        long morning = SortKey.dueKey(new Deadline("b", "2025-03-04 0000"));
+        long evening = SortKey.dueKey(new Deadline("c", "2025-03-04 2359"));
+
+        assertEquals(SortKey.startOfDay(LocalDate.of(2025, 3, 4)), day);
+        assertTrue(day < morning && morning < evening);
+        assertTrue(evening < SortKey.startOfDay(LocalDate.of(2025, 3, 5)));
+        assertEquals(LocalDate.of(2025, 3, 4), SortKey.dayOf(evening));
+        assertEquals(Long.MAX_VALUE, SortKey.dueKey(new Deadline("d", "Sunday")));
+    }
+
+    private static int[] scan(List<Task> tasks, long from, long to) {
+        return IntStream.range(0, tasks.size())
+                .filter(i -> !tasks.get(i).isDone)
+                .filter(i -> SortKey.dueKey(tasks.get(i)) != Long.MAX_VALUE)
+                .filter(i -> SortKey.dueKey(tasks.get(i)) >= from && SortKey.dueKey(tasks.get(i)) < to)
+                .boxed()
+                .sorted(Comparator.comparingLong((Integer i) -> SortKey.dueKey(tasks.get(i))))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+}
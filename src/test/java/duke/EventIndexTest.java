@@ -0,0 +1,91 @@
+package duke;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class EventIndexTest {
+    private static final LocalDateTime BASE = TestSupport.FIRST_DAY.atStartOfDay();
+
+    @Test
+    void queries_matchAScanAcrossAddsAndDeletes() {
+        Random random = new Random(3);
+        List<Task> tasks = new ArrayList<>();
+        EventIndex index = EventIndex.build(tasks);
+
+        for (int step = 0; step < 3000; step++) {
+            if (tasks.isEmpty() || random.nextInt(3) > 0) {
+                Task task = TestSupport.randomTask(random);
+                tasks.add(task);
+                index.append(task);
+            } else {
+                int position = random.nextInt(tasks.size());
+                tasks.remove(position);
+                index.remove(position);
+            }
+
+            if (step % 100 == 0) {
+                long from = EventIndex.secondsOf(BASE.plusMinutes(random.nextInt(TestSupport.DAYS * 24 * 60)));
+                long to = from + 60L * (1 + random.nextInt(240));
+                assertArrayEquals(scanOverlapping(tasks, from, to), index.positionsOverlapping(from, to, Integer.MAX_VALUE));
+                assertEquals(scanPairs(tasks), index.overlappingPairs(Integer.MAX_VALUE).stream()
+                        .map(pair -> pair[0] + "-" + pair[1]).sorted().collect(Collectors.toList()));
+            }
+        }
+    }
+
+    @Test
+    void event_parsesTimesAndKeepsRawTextOtherwise() {
+        Event sameDay = new Event("standup", "2025-01-06 0900", "0930");
+        assertTrue(sameDay.isScheduled());
+        assertEquals(LocalDateTime.of(2025, 1, 6, 9, 30), sameDay.end);
+        assertEquals("[E][ ] standup (from: Jan 6 2025 9:00AM to: 9:30AM)", sameDay.toString());
+
+        Event allDay = new Event("offsite", "2025-01-06", "2025-01-07");
+        assertEquals(LocalDateTime.of(2025, 1, 8, 0, 0), allDay.end, "a date-only end includes that day");
+
+        Event raw = new Event("party", "2pm", "4pm");
+        assertFalse(raw.isScheduled());
+        assertEquals("[E][ ] party (from: 2pm to: 4pm)", raw.toString());
+        assertFalse(new Event("backwards", "2025-01-06 1000", "0900").isScheduled());
+    }
+
+    private static int[] scanOverlapping(List<Task> tasks, long from, long to) {
+        return IntStream.range(0, tasks.size())
+                .filter(i -> tasks.get(i) instanceof Event && ((Event) tasks.get(i)).isScheduled())
+                .filter(i -> start(tasks, i) < to && end(tasks, i) > from)
+                .boxed()
+                .sorted(Comparator.comparingLong((Integer i) -> start(tasks, i)))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static List<String> scanPairs(List<Task> tasks) {
+        List<String> pairs = new ArrayList<>();
+        int[] events = scanOverlapping(tasks, Long.MIN_VALUE, Long.MAX_VALUE);
+        for (int i = 0; i < events.length; i++) {
+            for (int j = i + 1; j < events.length; j++) {
+                if (start(tasks, events[j]) < end(tasks, events[i]) && end(tasks, events[j]) > start(tasks, events[i])) {
+                    pairs.add(events[i] + "-" + events[j]);
+                }
+            }
+        }
+        pairs.sort(null);
+        return pairs;
+    }
+
+    private static long start(List<Task> tasks, int i) {
+        return EventIndex.secondsOf(((Event) tasks.get(i)).start);
+    }
+
+    private static long end(List<Task> tasks, int i) {
+        return EventIndex.secondsOf(((Event) tasks.get(i)).end);
+    }
+}
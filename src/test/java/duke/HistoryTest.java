@@ -0,0 +1,119 @@
+package duke;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+public class HistoryTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void undoAndRedo_restoreEachStateInMemoryAndOnDisk() throws Exception {
+        checkUndoAndRedo(storage -> storage.enableJournal(1024 * 1024));
+        checkUndoAndRedo(storage -> storage.setLazy(true));
+        checkUndoAndRedo(storage -> storage.enableSharding(2));
+    }
+
+    @Test
+    void newChange_discardsRedoAndLimitDropsOldestSteps() throws Exception {
+        TaskList tl = new TaskList();
+        TestSupport.silently(() -> {
+            tl.add(new Todo("a"));
+            tl.add(new Todo("b"));
+            tl.undo();
+            tl.add(new Todo("c"));
+        });
+        assertThrows(BoshException.class, tl::redo);
+
+        History history = new History(2);
+        for (int i = 0; i < 3; i++) {
+            history.recordCommand(History.Step.remove("adding " + i, new int[] {i}));
+        }
+        assertEquals("adding 2", history.popUndo().getLabel());
+        assertEquals("adding 1", history.popUndo().getLabel());
+        assertNull(history.popUndo());
+    }
+
+    private void checkUndoAndRedo(Setup setup) throws Exception {
+        Path file = dir.resolve(System.nanoTime() + ".txt");
+        Storage storage = open(file, setup);
+        TaskList tl = new TaskList(storage.load(), storage);
+        List<List<String>> states = new ArrayList<>();
+
+        TestSupport.silently(() -> {
+            states.add(describe(tl));
+            for (String name : List.of("pay bills", "call mum", "buy milk", "walk dog", "read book")) {
+                tl.add(new Todo(name));
+                states.add(describe(tl));
+            }
+            tl.markAll(new int[] {2, 4});
+            states.add(describe(tl));
+            tl.delete(3);
+            states.add(describe(tl));
+            tl.sortByDescription();
+            states.add(describe(tl));
+            tl.unmark(1);
+            states.add(describe(tl));
+            tl.deleteAll(new int[] {1, 3});
+            states.add(describe(tl));
+
+            for (int i = states.size() - 2; i >= 0; i--) {
+                tl.undo();
+                assertEquals(states.get(i), describe(tl));
+                assertEquals(states.get(i), reload(file, setup));
+            }
+            for (int i = 1; i < states.size(); i++) {
+                tl.redo();
+                assertEquals(states.get(i), describe(tl));
+                assertEquals(states.get(i), reload(file, setup));
+            }
+        });
+        assertThrows(BoshException.class, tl::redo);
+        storage.close();
+    }
+
+    private static Storage open(Path file, Setup setup) {
+        Storage storage = new Storage(file);
+        setup.apply(storage);
+        return storage;
+    }
+
+    private static List<String> reload(Path file, Setup setup) throws Exception {
+        Storage storage = open(file, setup);
+        List<String> lines = describe(storage.load(), task -> "#" + task.getId() + " " + task);
+        storage.close();
+        return lines;
+    }
+
+    /**
+     * Returns the list as "#id [T][ ] description" lines, read from its id listing.
+     */
+    private static List<String> describe(TaskList tl) throws Exception {
+        List<String> lines = new ArrayList<>();
+        for (String line : TestSupport.captureOutput(tl::listWithIds).split("\n")) {
+            int dot = line.indexOf(".#");
+            if (dot > 0) {
+                lines.add(line.substring(dot + 1).trim());
+            }
+        }
+        return lines;
+    }
+
+    private static List<String> describe(List<Task> tasks, Function<Task, String> format) {
+        List<String> lines = new ArrayList<>();
+        for (Task task : tasks) {
+            lines.add(format.apply(task));
+        }
+        return lines;
+    }
+
+    private interface Setup {
+        void apply(Storage storage);
+    }
+}
@@ -0,0 +1,90 @@
+package duke;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class SnapshotPublisherTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void publish_matchesTheListAndLeavesEarlierSnapshotsAlone() {
+        Random random = new Random(19);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 3 * SnapshotPublisher.CHUNK_SIZE + 5; i++) {
+            tasks.add(new Todo("task " + i));
+        }
+        SnapshotPublisher publisher = new SnapshotPublisher();
+        List<Task> previous = publisher.publish(tasks);
+        List<Task> previousContent = new ArrayList<>(tasks);
+
+        for (int step = 0; step < 2000; step++) {
+            int position = random.nextInt(tasks.size());
+            switch (random.nextInt(4)) {
+                case 0:
+                    tasks.add(new Todo("added " + step));
+                    break;
+                case 1:
+                    tasks.remove(position);
+                    publisher.shifted(position);
+                    break;
+                case 2:
+                    tasks.set(position, tasks.get(position).withStatus(true));
+                    publisher.changed(position);
+                    break;
+                default:
+                    if (step % 100 == 0) {
+                        Collections.reverse(tasks);
+                        publisher.changedAll();
+                    }
+            }
+
+            if (random.nextInt(3) == 0) {
+                List<Task> snapshot = publisher.publish(tasks);
+                assertEquals(tasks, snapshot);
+                assertEquals(previousContent, previous, "an earlier snapshot must not change");
+                assertThrows(UnsupportedOperationException.class, () -> snapshot.set(0, new Todo("x")));
+                previous = snapshot;
+                previousContent = new ArrayList<>(tasks);
+            }
+        }
+    }
+
+    @Test
+    void publish_copiesMappedListsWithoutSharingTheirArrays() throws IOException {
+        Path file = Files.writeString(dir.resolve("bosh.txt"), "T#1 | 0 | read book\nT#2 | 0 | return book\n");
+        MappedTaskList tasks = MappedTaskList.open(file);
+        SnapshotPublisher publisher = new SnapshotPublisher();
+        List<Task> snapshot = publisher.publish(tasks);
+
+        tasks.set(1, tasks.get(1).withStatus(true));
+        publisher.changed(1);
+        tasks.add(new Todo("call mum"));
+
+        assertEquals("[[T][ ] read book, [T][ ] return book]", snapshot.toString());
+        assertEquals(tasks.toString(), publisher.publish(tasks).toString());
+    }
+
+    @Test
+    void publish_copiesCompactListsWithoutSharingTheirColumns() {
+        ColumnarTaskList tasks = ColumnarTaskList.of(List.of(new Todo("read book"), new Todo("return book")));
+        SnapshotPublisher publisher = new SnapshotPublisher();
+        List<Task> snapshot = publisher.publish(tasks);
+
+        tasks.set(1, tasks.get(1).withStatus(true));
+        publisher.changed(1);
+        tasks.add(new Todo("call mum"));
+
+        assertEquals("[[T][ ] read book, [T][ ] return book]", snapshot.toString());
+        assertEquals(tasks.toString(), publisher.publish(tasks).toString());
+    }
+}
@@ -0,0 +1,107 @@
+package duke;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+public class SortKeyTest {
+    private static final String[] NAMES = {"read", "Read", "éclair", "Éclair", "straße", "STRASSE", "ÿes", "_x", "Zoo", "zoo", "a"};
+
+    @Test
+    void sort_matchesPerComparisonOrderings() {
+        List<Task> tasks = randomTasks(20_000, new Random(3)); // above the parallel threshold
+
+        assertSameOrder(tasks, SortKey::byDescription, Comparator.comparing(t -> t.getDescription().toLowerCase()));
+        assertSameOrder(tasks, SortKey::byType, Comparator.comparingInt(SortKeyTest::typePriority)
+                .thenComparing(Task::getDescription, String::compareToIgnoreCase));
+        assertSameOrder(tasks, SortKey::byStatus, Comparator.comparing((Task t) -> t.isDone)
+                .thenComparing(Task::getDescription, String::compareToIgnoreCase));
+        assertSameOrder(tasks, SortKey::byDeadline, SortKeyTest::compareDeadlines);
+    }
+
+    @Test
+    void byDeadline_putsDateOnlyBeforeTimedDeadlinesOfTheSameDay() {
+        List<Task> tasks = new ArrayList<>(List.of(new Deadline("late", "2024-01-05 2300"),
+                new Deadline("all day", "2024-01-05"), new Todo("someday"), new Deadline("early", "2024-01-05 0000")));
+        SortKey.sort(tasks, SortKey::byDeadline);
+        assertEquals("all day", tasks.get(0).getDescription());
+        assertEquals("early", tasks.get(1).getDescription());
+        assertEquals("late", tasks.get(2).getDescription());
+        assertEquals("someday", tasks.get(3).getDescription());
+    }
+
+    private static void assertSameOrder(List<Task> tasks, Function<Task, SortKey> keyOf, Comparator<Task> reference) {
+        List<Task> expected = new ArrayList<>(tasks);
+        expected.sort(reference);
+        List<Task> actual = new ArrayList<>(tasks);
+        SortKey.sort(actual, keyOf);
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(expected.get(i), actual.get(i), "position " + i);
+        }
+    }
+
+    /**
+     * Random tasks where no day has both a date-only and a timed deadline, on which the
+     * old deadline comparator was a consistent order.
+     */
+    private static List<Task> randomTasks(int count, Random random) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String description = NAMES[random.nextInt(NAMES.length)] + " " + NAMES[random.nextInt(NAMES.length)];
+            int day = 1 + random.nextInt(28);
+            Task task;
+            switch (random.nextInt(4)) {
+                case 0:
+                    task = new Todo(description);
+                    break;
+                case 1:
+                    task = new Deadline(description, day % 2 == 0
+                            ? String.format("2024-02-%02d", day)
+                            : String.format("2024-02-%02d %02d%02d", day, random.nextInt(24), random.nextInt(60)));
+                    break;
+                case 2:
+                    task = new Deadline(description, "next week");
+                    break;
+                default:
+                    task = new Event(description, "Mon", "Tue");
+            }
+            if (random.nextBoolean()) {
+                task.markAsDone();
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private static int typePriority(Task task) {
+        return task instanceof Todo ? 1 : task instanceof Deadline ? 2 : 3;
+    }
+
+    private static boolean hasDate(Task task) {
+        return task instanceof Deadline && (((Deadline) task).date != null || ((Deadline) task).dateTime != null);
+    }
+
+    private static int compareDeadlines(Task t1, Task t2) {
+        if (hasDate(t1) != hasDate(t2)) {
+            return hasDate(t1) ? -1 : 1;
+        }
+        if (!hasDate(t1)) {
+            return t1.getDescription().compareToIgnoreCase(t2.getDescription());
+        }
+        Deadline d1 = (Deadline) t1;
+        Deadline d2 = (Deadline) t2;
+        if (d1.dateTime != null && d2.dateTime != null) {
+            return d1.dateTime.compareTo(d2.dateTime);
+        }
+        if (d1.date != null && d2.date != null) {
+            return d1.date.compareTo(d2.date);
+        }
+        return (d1.dateTime != null ? d1.dateTime.toLocalDate() : d1.date)
+                .compareTo(d2.dateTime != null ? d2.dateTime.toLocalDate() : d2.date);
+    }
+}
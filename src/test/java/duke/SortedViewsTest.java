@@ -0,0 +1,80 @@
+package duke;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+public class SortedViewsTest {
+    @Test
+    void positionsIn_followsAddsMarksAndDeletesLikeAStableSort() {
+        Random random = new Random(11);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            tasks.add(TestSupport.randomTask(random));
+        }
+        SortedViews views = new SortedViews(tasks.size());
+
+        for (int step = 0; step < 3000; step++) {
+            int action = random.nextInt(4);
+            if (action == 0 || tasks.isEmpty()) {
+                Task task = TestSupport.randomTask(random);
+                tasks.add(task);
+                views.append(task);
+            } else if (action == 1) {
+                int position = random.nextInt(tasks.size());
+                tasks.remove(position);
+                views.remove(position);
+            } else {
+                int position = random.nextInt(tasks.size());
+                Task task = tasks.get(position);
+                if (task.isDone) {
+                    task.markAsUndone();
+                } else {
+                    task.markAsDone();
+                }
+                views.update(position, task);
+            }
+
+            if (step % 100 == 0) {
+                for (SortOrder order : SortOrder.values()) {
+                    assertArrayEquals(stableSortedPositions(tasks, order), views.positionsIn(order, tasks),
+                            order.getName());
+                }
+            }
+        }
+    }
+
+    @Test
+    void viewsAndKeys_holdNoTaskReferences() {
+        List<Class<?>> types = new ArrayList<>(List.of(SortedViews.class, SortKey.class, LivePositions.class));
+        types.addAll(List.of(SortedViews.class.getDeclaredClasses()));
+        Pattern taskType = Pattern.compile("\\bduke\\.Task\\b");
+        for (Class<?> type : types) {
+            for (Field field : type.getDeclaredFields()) {
+                assertFalse(taskType.matcher(field.getGenericType().getTypeName()).find(), field.toString());
+            }
+        }
+    }
+
+    private static int[] stableSortedPositions(List<Task> tasks, SortOrder order) {
+        List<Task> sorted = new ArrayList<>(tasks);
+        SortKey.sort(sorted, order::keyOf);
+        int[] positions = new int[sorted.size()];
+        boolean[] isUsed = new boolean[tasks.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            for (int p = 0; p < tasks.size(); p++) {
+                if (!isUsed[p] && tasks.get(p) == sorted.get(i)) {
+                    positions[i] = p;
+                    isUsed[p] = true;
+                    break;
+                }
+            }
+        }
+        return positions;
+    }
+}
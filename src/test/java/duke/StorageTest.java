@@ -0,0 +1,421 @@
+package duke;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class StorageTest {
+    @TempDir
+    Path dir;
+
+    private Storage journaled(long threshold) {
+        Storage storage = new Storage(dir.resolve("bosh.txt"));
+        storage.enableJournal(threshold);
+        return storage;
+    }
+
+    @Test
+    void journal_replaysMutationsOnTopOfSnapshot() throws Exception {
+        Storage storage = journaled(1024 * 1024);
+        TaskList tl = new TaskList(storage.load(), storage);
+        tl.add(new Todo("read book"));
+        tl.add(new Deadline("return book", "2019-10-15"));
+        tl.add(new Todo("call mum"));
+        tl.mark(2);
+        tl.delete(1);
+
+        assertTrue(Files.notExists(dir.resolve("bosh.txt")), "no snapshot should be written yet");
+
+        List<Task> reloaded = journaled(1024 * 1024).load();
+        assertEquals(2, reloaded.size());
+        assertEquals("[D][X] return book (by: Oct 15 2019)", reloaded.get(0).toString());
+        assertEquals("[T][ ] call mum", reloaded.get(1).toString());
+    }
+
+    @Test
+    void journal_compactsIntoSnapshotPastThreshold() throws Exception {
+        Storage storage = journaled(64);
+        TaskList tl = new TaskList(storage.load(), storage);
+        for (int i = 0; i < 10; i++) {
+            tl.add(new Todo("task " + i));
+        }
+
+        assertTrue(Files.exists(dir.resolve("bosh.txt")));
+        assertTrue(new Journal(dir.resolve("bosh.txt.journal")).size() <= 64 + 32);
+        assertEquals(10, journaled(64).load().size());
+    }
+
+    @Test
+    void journal_staleLogIsIgnored() throws IOException {
+        Storage storage = journaled(1024 * 1024);
+        storage.save(List.of(new Todo("a")));
+        Files.writeString(dir.resolve("bosh.txt.journal"), "# base 42\nA | T | 0 | b\n");
+
+        Storage reopened = journaled(1024 * 1024);
+        TaskList tl = new TaskList(reopened.load(), reopened);
+        assertEquals(1, tl.size());
+        tl.add(new Todo("c"));
+
+        List<Task> reloaded = journaled(1024 * 1024).load();
+        assertEquals("[[T][ ] a, [T][ ] c]", reloaded.toString());
+    }
+
+    @Test
+    void journal_tornTailIsCutBeforeNextAppend() throws Exception {
+        Storage storage = journaled(1024 * 1024);
+        TaskList tl = new TaskList(storage.load(), storage);
+        tl.add(new Todo("a"));
+        tl.add(new Todo("b"));
+        Files.writeString(dir.resolve("bosh.txt.journal"), "A | T | 0 | tor", StandardOpenOption.APPEND);
+
+        Storage reopened = journaled(1024 * 1024);
+        tl = new TaskList(reopened.load(), reopened);
+        assertEquals(2, tl.size());
+        tl.add(new Todo("c"));
+        tl.mark(3);
+
+        List<Task> reloaded = journaled(1024 * 1024).load();
+        assertEquals("[[T][ ] a, [T][ ] b, [T][X] c]", reloaded.toString());
+    }
+
+    @Test
+    void convert_replaysTheJournalWithoutChangingIt() throws Exception {
+        Storage storage = journaled(1024 * 1024);
+        TaskList tl = new TaskList(storage.load(), storage);
+        tl.add(new Todo("a"));
+        tl.add(new Todo("b"));
+        Path journal = dir.resolve("bosh.txt.journal");
+        Files.writeString(journal, "A | T | 0 | tor", StandardOpenOption.APPEND);
+        byte[] journalBytes = Files.readAllBytes(journal);
+
+        Path binary = dir.resolve("bosh.bin");
+        assertEquals(2, StorageConverter.convert(dir.resolve("bosh.txt"), binary, true));
+        assertArrayEquals(journalBytes, Files.readAllBytes(journal));
+        assertEquals("[[T][ ] a, [T][ ] b]", new Storage(binary).load().toString());
+    }
+
+    @Test
+    void binaryFormat_roundTripsAndIsDetectedOnLoad() throws IOException {
+        Path text = dir.resolve("bosh.txt");
+        Files.writeString(text, String.join(System.lineSeparator(),
+                "T | 0 | read book",
+                "D | 1 | return book | 2019-10-15",
+                "D | 0 | pay bills | 2019-10-15 1800",
+                "D | 0 | call mum | Sunday",
+                "E | 1 | meeting | 2pm | 4pm"));
+        List<Task> original = new Storage(text).load();
+
+        Path binary = dir.resolve("bosh.bin");
+        assertEquals(5, StorageConverter.convert(text, binary, true));
+        assertTrue(BinaryTaskFormat.isBinary(Files.readAllBytes(binary)));
+
+        List<Task> loaded = new Storage(binary).load();
+        assertEquals(original.toString(), loaded.toString());
+
+        Path back = dir.resolve("back.txt");
+        StorageConverter.convert(binary, back, false);
+        assertEquals(Files.readAllLines(text), Files.readAllLines(back));
+    }
+
+    @Test
+    void binaryFormat_storesParsedEventTimesAndReadsOlderVersions() throws IOException {
+        Event event = new Event("exam", "2025-05-02 0900", "1100");
+        Event decoded = (Event) BinaryTaskFormat.decode(BinaryTaskFormat.encode(List.of(event))).get(0);
+        assertEquals(LocalDateTime.of(2025, 5, 2, 9, 0), decoded.start);
+        assertEquals(LocalDateTime.of(2025, 5, 2, 11, 0), decoded.end);
+        assertEquals(event.toString(), decoded.toString());
+
+        ByteBuffer version2 = ByteBuffer.allocate(64);
+        version2.putInt(BinaryTaskFormat.MAGIC).put((byte) 2).putInt(1).put((byte) 2).putInt(7);
+        for (String text : new String[] {"exam", "2025-05-02", "2025-05-03"}) {
+            version2.putInt(text.length()).put(text.getBytes(StandardCharsets.UTF_8));
+        }
+        Event old = (Event) BinaryTaskFormat.decode(Arrays.copyOf(version2.array(), version2.position())).get(0);
+        assertEquals(7, old.getId());
+        assertEquals(LocalDateTime.of(2025, 5, 4, 0, 0), old.end);
+    }
+
+    @Test
+    void load_reportsCorruptLinesInsteadOfDroppingSilently() throws IOException {
+        Path text = dir.resolve("bosh.txt");
+        Files.writeString(text, "T | 0 | read book\n\nX | 0 | bad type\r\n"
+                + "D | 1 | no date |  \nE|0|meeting|2pm|4pm\nT | 1 | last line");
+        Storage storage = new Storage(text);
+
+        List<Task> tasks = storage.load();
+        assertEquals(3, tasks.size());
+        assertEquals("[E][ ] meeting (from: 2pm to: 4pm)", tasks.get(1).toString());
+        assertEquals("[T][X] last line", tasks.get(2).toString());
+        assertEquals(List.of(3, 4), storage.getSkippedLines());
+    }
+
+    @Test
+    void parallelLoad_matchesSequentialOrderAndLineNumbers() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 1; i <= 200_000; i++) {
+            sb.append(i % 50_000 == 0 ? "corrupt" : "T | " + (i % 2) + " | task " + i).append('\n');
+        }
+        Path text = dir.resolve("bosh.txt");
+        Files.writeString(text, sb.toString());
+
+        Storage sequential = new Storage(text);
+        sequential.setParallelLoadThreshold(Long.MAX_VALUE);
+        Storage parallel = new Storage(text);
+        parallel.setParallelLoadThreshold(0);
+
+        List<Task> expected = sequential.load();
+        List<Task> actual = parallel.load();
+        assertEquals(199_996, actual.size());
+        assertEquals(expected.toString(), actual.toString());
+        assertEquals(List.of(50_000, 100_000, 150_000, 200_000), parallel.getSkippedLines());
+    }
+
+    @Test
+    void lazyLoad_buildsTasksOnAccessAndSavesUntouchedLinesVerbatim() throws Exception {
+        Path text = dir.resolve("bosh.txt");
+        Files.writeString(text, "T#1 | 0 | read book\nbroken\nD#2 | 0 | return book | 2019-10-15\n"
+                + "E#3 | 0 | meeting | 2pm | 4pm\n");
+        Path staleCopy = Files.writeString(dir.resolve("bosh.txt.123.map"), "left by an earlier run");
+        Storage storage = new Storage(text);
+        storage.setLazy(true);
+
+        List<Task> loaded = storage.load();
+        assertTrue(loaded instanceof MappedTaskList);
+        assertEquals(List.of(2), storage.getSkippedLines());
+        assertTrue(Files.notExists(staleCopy));
+
+        TaskList tl = new TaskList(loaded, storage);
+        tl.mark(2);
+        tl.delete(1);
+        tl.add(new Todo("call mum"));
+
+        List<String> lines = Files.readAllLines(text);
+        assertEquals(List.of("D#2 | 1 | return book | 2019-10-15", "E#3 | 0 | meeting | 2pm | 4pm",
+                "T#4 | 0 | call mum"), lines);
+    }
+
+    @Test
+    void save_everyDurabilityModeReplacesFileWithoutLeftovers() throws IOException {
+        for (String mode : List.of("fsync-every-write", "periodic", "none")) {
+            Path text = dir.resolve(mode + ".txt");
+            Storage storage = new Storage(text);
+            storage.setDurability(Durability.fromName(mode), 10);
+            storage.save(List.of(new Todo("a")));
+            storage.save(List.of(new Todo("a"), new Todo("b")));
+            storage.close();
+
+            assertEquals(List.of("T | 0 | a", "T | 0 | b"), Files.readAllLines(text));
+            assertTrue(Files.notExists(dir.resolve(mode + ".txt.tmp")));
+        }
+        assertThrows(IllegalArgumentException.class, () -> Durability.fromName("sometimes"));
+    }
+
+    @Test
+    void sharded_editRewritesOnlyTheTouchedSegment() throws Exception {
+        Storage storage = new Storage(dir.resolve("bosh.txt"));
+        storage.enableSharding(4);
+        TaskList tl = new TaskList(storage.load(), storage);
+        for (int i = 1; i <= 12; i++) {
+            tl.add(new Todo("task " + i));
+        }
+        Path segments = dir.resolve("bosh.txt.segments");
+        Set<Path> before = listSegments(segments);
+        assertEquals(3, before.size());
+
+        tl.mark(6);
+        Set<Path> after = listSegments(segments);
+        after.removeAll(before);
+        assertEquals(1, after.size(), "only the middle segment should be rewritten");
+
+        tl.delete(1);
+        tl.delete(1);
+        tl.delete(1);
+        tl.delete(2); // segments now hold 1 and 3 tasks, so they are merged
+
+        Storage reloaded = new Storage(dir.resolve("bosh.txt"));
+        reloaded.enableSharding(4);
+        List<Task> tasks = reloaded.load();
+        assertEquals(8, tasks.size());
+        assertEquals("[T][ ] task 4", tasks.get(0).toString());
+        assertEquals("[T][X] task 6", tasks.get(1).toString());
+        assertEquals(2, listSegments(segments).size());
+    }
+
+    @Test
+    void sharded_insertsSplitASegmentThatOutgrowsTheSegmentSize() throws Exception {
+        Storage storage = new Storage(dir.resolve("bosh.txt"));
+        storage.enableSharding(4);
+        TaskList tl = new TaskList(storage.load(), storage);
+        for (int i = 1; i <= 8; i++) {
+            tl.add(new Todo("task " + i));
+        }
+        tl.deleteAll(new int[] {3, 4, 6, 7});
+        tl.undo(); // puts four tasks back into the second segment
+
+        Path manifest = dir.resolve("bosh.txt.segments").resolve("manifest");
+        for (String line : Files.readAllLines(manifest)) {
+            if (!line.startsWith("#")) {
+                assertTrue(Integer.parseInt(line.substring(line.indexOf(' ') + 1)) <= 4, line);
+            }
+        }
+        Storage reloaded = new Storage(dir.resolve("bosh.txt"));
+        reloaded.enableSharding(4);
+        List<Task> tasks = reloaded.load();
+        assertEquals(8, tasks.size());
+        for (int i = 0; i < 8; i++) {
+            assertEquals("[T][ ] task " + (i + 1), tasks.get(i).toString());
+        }
+    }
+
+    @Test
+    void archive_movesDoneTasksOutOfTheLoadedListAndRestoresThem() throws Exception {
+        Storage storage = new Storage(dir.resolve("bosh.txt"));
+        TaskList tl = new TaskList(storage.load(), storage);
+        tl.add(new Todo("read book"));
+        tl.add(new Deadline("return book", "2019-10-15"));
+        tl.add(new Todo("call mum"));
+        tl.mark(1);
+        tl.mark(2);
+        tl.archive();
+        tl.add(new Todo("pay bills"));
+        tl.mark(2);
+        tl.archive();
+
+        Storage reloaded = new Storage(dir.resolve("bosh.txt"));
+        assertEquals(List.of("[T][ ] call mum"), reloaded.load().stream().map(Task::toString).collect(Collectors.toList()));
+        List<Task> archived = reloaded.loadArchive();
+        assertEquals(3, archived.size());
+        assertEquals("[D][X] return book (by: Oct 15 2019)", archived.get(1).toString());
+        assertEquals("[T][X] pay bills", archived.get(2).toString());
+
+        TaskList restoring = new TaskList(reloaded.load(), reloaded);
+        restoring.restore(2);
+        assertEquals(2, restoring.size());
+        assertEquals(2, reloaded.loadArchive().size());
+        assertEquals(2, new Storage(dir.resolve("bosh.txt")).load().size());
+        assertThrows(BoshException.class, () -> restoring.restore(3));
+    }
+
+    @Test
+    void watching_picksUpOnlyWhatAnotherInstanceChanged() throws Exception {
+        Storage first = new Storage(dir.resolve("bosh.txt"));
+        first.enableWatching();
+        TaskList a = new TaskList(first.load(), first);
+        for (int i = 1; i <= 5; i++) {
+            a.add(new Todo("task " + i));
+        }
+
+        Storage second = new Storage(dir.resolve("bosh.txt"));
+        second.enableWatching();
+        TaskList b = new TaskList(second.load(), second);
+        Storage observer = new Storage(dir.resolve("bosh.txt"));
+        observer.enableWatching();
+        observer.load();
+        b.mark(3);
+
+        SnapshotDiff diff = observer.readChanges();
+        assertEquals(2, diff.getStart());
+        assertEquals(1, diff.getRemovedCount());
+        assertEquals("[T][X] task 3", diff.getAdded().get(0).toString());
+        assertNull(observer.readChanges(), "nothing changed since");
+
+        b.delete(1);
+        a.add(new Todo("task 6")); // picks up the delete before writing, so neither change is lost
+        assertEquals(5, a.size());
+        b.reloadFromDisk();
+        List<Task> reloaded = new Storage(dir.resolve("bosh.txt")).load();
+        assertEquals(5, b.size());
+        assertEquals("[T][X] task 3", reloaded.get(1).toString());
+        assertEquals("[T][ ] task 6", reloaded.get(4).toString());
+
+        assertNull(second.readChanges(), "b has seen every write");
+        Files.writeString(dir.resolve("bosh.txt"), "T | 0 | typed by hand\n", StandardOpenOption.APPEND);
+        assertEquals("[T][ ] typed by hand", second.readChanges().getAdded().get(0).toString());
+    }
+
+    @Test
+    void watching_keepsTheFileLockedFromLookupToSave() throws Exception {
+        Storage storage = new Storage(dir.resolve("bosh.txt"));
+        storage.enableWatching();
+        TaskList tl = new TaskList(storage.load(), storage);
+        tl.add(new Todo("read book"));
+
+        try (FileChannel otherInstance = FileChannel.open(dir.resolve("bosh.txt.lock"), StandardOpenOption.WRITE)) {
+            tl.runAsOneChange(() -> {
+                int index = tl.indexOfId(1);
+                assertThrows(OverlappingFileLockException.class, otherInstance::tryLock);
+                tl.mark(index);
+            });
+            FileLock afterwards = otherInstance.tryLock();
+            assertNotNull(afterwards);
+            afterwards.release();
+        }
+        assertEquals(List.of("T#1 | 1 | read book"), Files.readAllLines(dir.resolve("bosh.txt")));
+    }
+
+    @Test
+    void bulkCommands_changeManyTasksAndReplayFromTheJournal() throws Exception {
+        Storage storage = journaled(1024 * 1024);
+        TaskList tl = new TaskList(storage.load(), storage);
+        for (int i = 1; i <= 20; i++) {
+            tl.add(new Todo("task " + i));
+        }
+
+        tl.markAll(new int[] {1, 4, 9, 10, 11, 12});
+        tl.deleteAll(new int[] {2, 3, 4, 5});
+        tl.deleteDone();
+        assertEquals(11, tl.size());
+
+        List<Task> reloaded = journaled(1024 * 1024).load();
+        assertEquals(11, reloaded.size());
+        assertEquals("[T][ ] task 6", reloaded.get(0).toString());
+        assertEquals("[T][ ] task 13", reloaded.get(3).toString());
+
+        assertThrows(BoshException.class, () -> tl.deleteAll(new int[] {1, 12}));
+        assertEquals(11, tl.size(), "nothing is deleted when one number is out of range");
+    }
+
+    @Test
+    void taskIds_surviveReordersRestartsAndTheBinaryFormat() throws Exception {
+        Path text = dir.resolve("bosh.txt");
+        Files.writeString(text, "T | 0 | read book\nD | 0 | return book | 2019-10-15\n");
+        Storage storage = new Storage(text);
+        TaskList tl = new TaskList(storage.load(), storage);
+        tl.add(new Todo("call mum"));
+        tl.sortByDescription();
+        tl.delete(tl.indexOfId(1));
+        assertEquals(1, tl.indexOfId(3));
+        assertThrows(BoshException.class, () -> tl.indexOfId(1));
+
+        assertEquals(List.of("T#3 | 0 | call mum", "D#2 | 0 | return book | 2019-10-15"), Files.readAllLines(text));
+
+        Path binary = dir.resolve("bosh.bin");
+        StorageConverter.convert(text, binary, true);
+        TaskList reloaded = new TaskList(new Storage(binary).load(), new Storage(binary));
+        assertEquals(2, reloaded.indexOfId(2));
+        reloaded.add(new Todo("pay bills"));
+        assertEquals(3, reloaded.indexOfId(4));
+    }
+
+    private static Set<Path> listSegments(Path segments) throws IOException {
+        try (Stream<Path> files = Files.list(segments)) {
+            return files.filter(path -> path.toString().endsWith(".seg")).collect(Collectors.toSet());
+        }
+    }
+}
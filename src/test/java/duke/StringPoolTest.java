@@ -0,0 +1,64 @@
+package duke;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+public class StringPoolTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void canonical_returnsOneCopyPerTextAndCountsLookups() {
+        StringPool pool = new StringPool();
+        String first = pool.canonical(new String("2pm"));
+        String second = pool.canonical(new String("2pm"));
+
+        assertSame(first, second);
+        assertNotSame(first, pool.canonical("4pm"));
+        assertNull(pool.canonical(null));
+        assertEquals(1, pool.getHits());
+        assertEquals(2, pool.getMisses());
+        assertEquals(2, pool.size());
+    }
+
+    @Test
+    void canonical_holdsTextsOnlyWeakly() throws Exception {
+        StringPool pool = new StringPool();
+        for (int i = 0; i < 100; i++) {
+            pool.canonical("text " + i);
+        }
+
+        Field stripesField = StringPool.class.getDeclaredField("stripes");
+        stripesField.setAccessible(true);
+        int values = 0;
+        for (Object stripe : (List<?>) stripesField.get(pool)) {
+            assertTrue(stripe instanceof WeakHashMap);
+            for (Object value : ((Map<?, ?>) stripe).values()) {
+                assertTrue(value instanceof WeakReference);
+                values++;
+            }
+        }
+        assertEquals(pool.size(), values);
+    }
+
+    @Test
+    void load_sharesRepeatedText() throws Exception {
+        Path file = dir.resolve("bosh.txt");
+        Files.writeString(file, "D | 0 | return book | June 6th\nE | 0 | project meeting | 2pm | 4pm\n"
+                + "D | 0 | return book | Sunday\nE | 0 | team meeting | 2pm | 4pm\n");
+        List<Task> tasks = new Storage(file).load();
+
+        assertSame(tasks.get(0).getDescription(), tasks.get(2).getDescription());
+        assertSame(((Event) tasks.get(1)).from, ((Event) tasks.get(3)).from);
+        assertSame(((Event) tasks.get(1)).to, ((Event) tasks.get(3)).to);
+    }
+}
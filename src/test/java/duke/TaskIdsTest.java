@@ -0,0 +1,76 @@
+package duke;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class TaskIdsTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void positionOf_followsAddsAndDeletes() {
+        Random random = new Random(7);
+        List<Integer> ids = new ArrayList<>();
+        TaskIds index = TaskIds.build(List.of());
+        int nextId = 1;
+
+        for (int step = 0; step < 20_000; step++) {
+            if (ids.isEmpty() || random.nextInt(3) > 0) {
+                ids.add(nextId);
+                index.append(nextId++);
+            } else {
+                int position = random.nextInt(ids.size());
+                ids.remove(position);
+                index.remove(position);
+            }
+
+            if (step % 500 == 0) {
+                for (int id = 1; id < nextId; id++) {
+                    assertEquals(ids.indexOf(id), index.positionOf(id), "id " + id);
+                }
+            }
+        }
+        assertEquals(-1, index.positionOf(0));
+        assertEquals(-1, index.positionOf(nextId));
+    }
+
+    @Test
+    void assignMissing_numbersOnFromTheHighestId() {
+        Todo first = new Todo("read book");
+        Todo second = new Todo("return book");
+        second.setId(40);
+        Todo third = new Todo("call mum");
+        List<Task> tasks = new ArrayList<>(List.of(first, second, third));
+
+        assertEquals(42, TaskIds.assignMissing(tasks));
+        assertEquals(41, first.getId());
+        assertEquals(42, third.getId());
+        assertEquals(2, TaskIds.build(tasks).positionOf(42));
+    }
+
+    @Test
+    void assignMissing_leavesMappedLinesUnbuiltAndSavesTheIds() throws IOException {
+        Path file = dir.resolve("bosh.txt");
+        Files.writeString(file, "T | 0 | read book\nT#7 | 1 | return book\nE | 0 | meeting | 2pm | 4pm\n");
+        MappedTaskList tasks = MappedTaskList.open(file);
+
+        assertEquals(9, TaskIds.assignMissing(tasks));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < tasks.size(); i++) {
+            assertTrue(tasks.writeRawLine(i, out), "line " + i + " should not be built");
+            out.write('\n');
+        }
+        assertEquals("T#8 | 0 | read book\nT#7 | 1 | return book\nE#9 | 0 | meeting | 2pm | 4pm\n", out.toString());
+        assertEquals(9, tasks.get(2).getId());
+        assertEquals(9, tasks.copy().idAt(2));
+    }
+}
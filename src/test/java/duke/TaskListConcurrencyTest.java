@@ -0,0 +1,150 @@
+package duke;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TaskListConcurrencyTest {
+    private static final int WRITERS = 4;
+    private static final int READERS = 3;
+    private static final int COMMANDS_PER_WRITER = 400;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void mixedCommandsFromManyThreads_keepListAndFileInStep() throws Exception {
+        Storage storage = journaled();
+        TaskList tl = new TaskList(storage.load(), storage);
+        tl.enableConcurrentReads();
+
+        AtomicInteger added = new AtomicInteger();
+        AtomicInteger deleted = new AtomicInteger();
+        AtomicBoolean isWriting = new AtomicBoolean(true);
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> writers = new ArrayList<>();
+        List<Thread> readers = new ArrayList<>();
+
+        for (int w = 0; w < WRITERS; w++) {
+            int seed = w;
+            writers.add(new Thread(() -> runWriter(tl, seed, start, added, deleted, failures)));
+        }
+        for (int r = 0; r < READERS; r++) {
+            readers.add(new Thread(() -> runReader(tl, start, isWriting, failures)));
+        }
+
+        TestSupport.silently(() -> {
+            writers.forEach(Thread::start);
+            readers.forEach(Thread::start);
+            start.countDown();
+            for (Thread writer : writers) {
+                writer.join();
+            }
+            isWriting.set(false);
+            for (Thread reader : readers) {
+                reader.join();
+            }
+        });
+
+        assertTrue(failures.isEmpty(), () -> "failed: " + failures.peek());
+        assertEquals(added.get() - deleted.get(), tl.size());
+
+        List<Task> reloaded = journaled().load();
+        assertEquals(tl.size(), reloaded.size());
+        Set<Integer> ids = new HashSet<>();
+        for (Task task : reloaded) {
+            assertTrue(ids.add(task.getId()), "ids are unique: " + task.getId());
+        }
+    }
+
+    @Test
+    void reads_doNotWaitForAChangeInProgress() throws Exception {
+        TaskList tl = new TaskList(List.of(new Todo("read book"), new Todo("return book")), null);
+        tl.enableConcurrentReads();
+        AtomicInteger seen = new AtomicInteger(-1);
+
+        TestSupport.silently(() -> {
+            synchronized (tl) { // stands in for a write that is taking a long time
+                Thread reader = new Thread(() -> {
+                    try {
+                        tl.list();
+                        tl.find("book");
+                        seen.set(tl.size());
+                    } catch (BoshException e) {
+                        throw new AssertionError(e);
+                    }
+                });
+                reader.start();
+                reader.join(5000);
+                assertFalse(reader.isAlive(), "reader should not wait for the lock");
+            }
+        });
+        assertEquals(2, seen.get());
+    }
+
+    private Storage journaled() {
+        Storage storage = new Storage(dir.resolve("bosh.txt"));
+        storage.enableJournal(64 * 1024);
+        return storage;
+    }
+
+    private static void runWriter(TaskList tl, int seed, CountDownLatch start, AtomicInteger added,
+                                  AtomicInteger deleted, Queue<Throwable> failures) {
+        Random random = new Random(seed);
+        try {
+            start.await();
+            for (int i = 0; i < COMMANDS_PER_WRITER; i++) {
+                int size = Math.max(1, tl.size());
+                int number = 1 + random.nextInt(size);
+                try {
+                    switch (random.nextInt(6)) {
+                        case 0:
+                            Parser.handle("mark " + number, tl);
+                            break;
+                        case 1:
+                            Parser.handle("unmark " + number, tl);
+                            break;
+                        case 2:
+                            Parser.handle("delete " + number, tl);
+                            deleted.incrementAndGet();
+                            break;
+                        default:
+                            Parser.handle("todo writer " + seed + " task " + i, tl);
+                            added.incrementAndGet();
+                    }
+                } catch (BoshException e) {
+                    // another writer deleted the task first
+                }
+            }
+        } catch (Throwable t) {
+            failures.add(t);
+        }
+    }
+
+    private static void runReader(TaskList tl, CountDownLatch start, AtomicBoolean isWriting,
+                                  Queue<Throwable> failures) {
+        try {
+            start.await();
+            while (isWriting.get()) {
+                tl.list();
+                tl.find("task 1");
+                assertTrue(tl.size() >= 0);
+            }
+        } catch (Throwable t) {
+            failures.add(t);
+        }
+    }
+}
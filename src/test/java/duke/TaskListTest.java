@@ -17,4 +17,22 @@ public class TaskListTest {
 
         tl.unmark(1);
     }
+
+    @Test
+    void listPage_showsOnlyThatPageUnderTheUsualNumbers() throws Exception {
+        TaskList tl = new TaskList(List.of(), null);
+        for (int i = 1; i <= 45; i++) {
+            tl.add(new Deadline("task " + i, "2025-01-15 1800"));
+        }
+
+        String page = TestSupport.captureOutput(() -> tl.listPage(3));
+        assertTrue(page.contains("41.[D][ ] task 41 (by: Jan 15 2025 6:00PM)"), page);
+        assertTrue(page.contains("45.[D][ ] task 45"), page);
+        assertFalse(page.contains("40."), page);
+        assertTrue(page.contains("(tasks 41-45 of 45)"), page);
+
+        String range = TestSupport.captureOutput(() -> tl.list(10, 2));
+        assertTrue(range.contains("11.[D]") && range.contains("12.[D]") && !range.contains("13.[D]"), range);
+        assertThrows(BoshException.class, () -> tl.listPage(4));
+    }
 }
@@ -0,0 +1,89 @@
+package duke;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class TaskStatsTest {
+    private static final LocalDateTime BASE = TestSupport.FIRST_DAY.minusDays(2).atTime(12, 0); // before any deadline
+
+    @Test
+    void counts_matchAScanAsTasksChangeAndTimePasses() {
+        Random random = new Random(23);
+        List<Task> tasks = new ArrayList<>();
+        TaskStats stats = TaskStats.build(tasks);
+        LocalDateTime now = BASE;
+
+        for (int step = 0; step < 3000; step++) {
+            int choice = tasks.isEmpty() ? 0 : random.nextInt(3);
+            if (choice == 0) {
+                Task task = TestSupport.randomTask(random);
+                tasks.add(task);
+                stats.added(task);
+            } else if (choice == 1) {
+                int position = random.nextInt(tasks.size());
+                Task task = tasks.get(position).withStatus(random.nextBoolean());
+                stats.replaced(tasks.set(position, task), task);
+            } else {
+                stats.removed(tasks.remove(random.nextInt(tasks.size())));
+            }
+
+            if (step % 50 == 0) {
+                now = now.plusMinutes(random.nextInt(24 * 60) - 6 * 60); // mostly forward, sometimes back
+                assertEquals(scanOverdue(tasks, now), stats.overdue(now), "at " + now);
+                for (TaskType type : TaskType.values()) {
+                    assertEquals(scanCount(tasks, type, true), stats.count(type, true));
+                    assertEquals(scanCount(tasks, type, false), stats.count(type, false));
+                }
+            }
+        }
+    }
+
+    @Test
+    void statsCommand_reportsCountsAfterChanges() throws Exception {
+        TaskList tl = new TaskList();
+        TestSupport.silently(() -> {
+            tl.add(new Todo("read book"));
+            tl.add(new Deadline("return book", "2000-01-01"));
+            tl.add(new Deadline("file taxes", "2999-04-15"));
+            tl.stats();
+            tl.mark(3);
+            tl.add(new Event("meeting", "2pm", "4pm"));
+            tl.delete(1);
+        });
+
+        String shown = TestSupport.captureOutput(tl::stats);
+        assertTrue(shown.contains("Todos: 0 (0 done, 0 pending)"), shown);
+        assertTrue(shown.contains("Deadlines: 2 (1 done, 1 pending, 1 overdue)"), shown);
+        assertTrue(shown.contains("Events: 1 (0 done, 1 pending)"), shown);
+        assertTrue(shown.contains("Total: 3 (1 done, 2 pending)"), shown);
+        assertFalse(shown.contains("pool"), shown);
+    }
+
+    private static int scanCount(List<Task> tasks, TaskType type, boolean isDone) {
+        int count = 0;
+        for (Task task : tasks) {
+            if (task.type == type && task.isDone == isDone) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int scanOverdue(List<Task> tasks, LocalDateTime now) {
+        int count = 0;
+        for (Task task : tasks) {
+            if (task instanceof Deadline && !task.isDone) {
+                Deadline deadline = (Deadline) task;
+                boolean isPast = deadline.dateTime != null ? deadline.dateTime.isBefore(now)
+                        : deadline.date != null && deadline.date.isBefore(now.toLocalDate());
+                count += isPast ? 1 : 0;
+            }
+        }
+        return count;
+    }
+}
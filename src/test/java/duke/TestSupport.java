@@ -0,0 +1,97 @@
+package duke;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+/**
+ * Helpers shared by the tests: running commands without their output cluttering the test
+ * log, capturing what a command prints, and building random tasks to check indexes against.
+ */
+final class TestSupport {
+    /** First day random deadlines and events fall on. */
+    static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 6);
+    /** Number of days random deadlines and events are spread over. */
+    static final int DAYS = 7;
+
+    private static final DateTimeFormatter IN_DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
+    private static final String[] DESCRIPTIONS = {"read book", "return book", "Éclair ✓", "team meeting",
+        "x".repeat(150)};
+
+    private TestSupport() {
+    }
+
+    /**
+     * Runs commands and returns what they printed.
+     */
+    static String captureOutput(Action action) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(out));
+        try {
+            action.run();
+        } finally {
+            System.setOut(original);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Runs commands without printing anything.
+     */
+    static void silently(Action action) throws Exception {
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            action.run();
+        } finally {
+            System.setOut(original);
+        }
+    }
+
+    /**
+     * Returns a todo, a deadline (date only, timed, or free text) or an event (timed or free
+     * text), done or not. Descriptions repeat and times fall on a 15-minute grid over
+     * {@link #DAYS} days from {@link #FIRST_DAY}, so equal keys and overlapping events are common.
+     */
+    static Task randomTask(Random random) {
+        String description = DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)];
+        LocalDateTime start = FIRST_DAY.atStartOfDay().plusMinutes(15L * random.nextInt(DAYS * 24 * 4));
+        Task task;
+        switch (random.nextInt(6)) {
+            case 0:
+                task = new Todo(description);
+                break;
+            case 1:
+                task = new Deadline(description, start.toLocalDate().toString());
+                break;
+            case 2:
+                task = new Deadline(description, start.format(IN_DATE_TIME));
+                break;
+            case 3:
+                task = new Deadline(description, "next week");
+                break;
+            case 4:
+                LocalDateTime end = start.plusMinutes(15L * (1 + random.nextInt(12)));
+                task = new Event(description, start.format(IN_DATE_TIME), end.format(IN_DATE_TIME));
+                break;
+            default:
+                task = new Event(description, "2pm", "4pm");
+        }
+        if (random.nextBoolean()) {
+            task.markAsDone();
+        }
+        return task;
+    }
+
+    /**
+     * Commands run by {@link #captureOutput} or {@link #silently}.
+     */
+    interface Action {
+        void run() throws Exception;
+    }
+}
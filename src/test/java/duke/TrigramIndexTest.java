@@ -0,0 +1,45 @@
+package duke;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+public class TrigramIndexTest {
+    private static final String[] WORDS = {"Read", "book", "return", "bookshelf", "mum", "CS2103", "aaaa"};
+    private static final String[] QUERIES = {"boo", "book", "ook r", "eturn", "aaa", "aaaaa", "cs21", "xyz", "n b"};
+
+    @Test
+    void candidates_includeEverySubstringMatchInListOrder() {
+        Random random = new Random(7);
+        List<String> descriptions = new ArrayList<>();
+        TrigramIndex index = TrigramIndex.build(List.of());
+
+        for (int step = 0; step < 4000; step++) {
+            if (descriptions.isEmpty() || random.nextInt(3) > 0) {
+                String description = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+                descriptions.add(description);
+                index.append(description);
+            } else {
+                int position = random.nextInt(descriptions.size());
+                descriptions.remove(position);
+                index.remove(position);
+            }
+
+            if (step % 200 == 0) {
+                for (String query : QUERIES) {
+                    int[] verified = IntStream.of(index.findCandidates(query))
+                            .filter(i -> descriptions.get(i).toLowerCase().contains(query))
+                            .toArray();
+                    int[] scanned = IntStream.range(0, descriptions.size())
+                            .filter(i -> descriptions.get(i).toLowerCase().contains(query))
+                            .toArray();
+                    assertArrayEquals(scanned, verified, query);
+                }
+            }
+        }
+    }
+}
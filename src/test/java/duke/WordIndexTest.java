@@ -0,0 +1,66 @@
+package duke;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+public class WordIndexTest {
+    private static final String[] WORDS = {"read", "book", "return", "call", "mum", "CS2103", "exam"};
+
+    @Test
+    void findAll_matchesWholeWordsInListOrderAcrossAddsAndDeletes() {
+        Random random = new Random(42);
+        List<String> descriptions = new ArrayList<>();
+        WordIndex index = WordIndex.build(List.of());
+
+        for (int step = 0; step < 5000; step++) {
+            if (descriptions.isEmpty() || random.nextInt(3) > 0) {
+                String description = WORDS[random.nextInt(WORDS.length)] + ", "
+                        + WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+                descriptions.add(description);
+                index.append(description);
+            } else {
+                int position = random.nextInt(descriptions.size());
+                descriptions.remove(position);
+                index.remove(position);
+            }
+
+            if (step % 250 == 0) {
+                String query = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+                assertArrayEquals(scan(descriptions, query), index.findAll(query), query);
+            }
+        }
+    }
+
+    @Test
+    void findFuzzy_toleratesTyposAndSkipsDeletedTasks() {
+        WordIndex index = WordIndex.build(List.of(new Todo("return book"), new Todo("read bookshelf"),
+                new Todo("call mum"), new Todo("return desk")));
+
+        assertArrayEquals(new int[] {0, 3}, index.findFuzzy("retrun"));
+        assertArrayEquals(new int[] {0}, index.findFuzzy("retrun bok"));
+        assertArrayEquals(new int[] {2}, index.findFuzzy("mum"));
+        assertArrayEquals(new int[0], index.findFuzzy("mu"));
+        index.remove(0);
+        assertArrayEquals(new int[] {2}, index.findFuzzy("RETRUN"));
+        index.append("Return the keys");
+        assertArrayEquals(new int[] {2, 3}, index.findFuzzy("retrun"));
+    }
+
+    @Test
+    void words_splitsOnPunctuationAndIgnoresCase() {
+        assertEquals(List.of("return", "book", "cs2103", "mum", "s"), WordIndex.words("Return book: CS2103/mum's"));
+        assertEquals(0, WordIndex.build(List.of(new Todo("reading"))).findAll("read").length);
+    }
+
+    private static int[] scan(List<String> descriptions, String query) {
+        List<String> wanted = WordIndex.words(query);
+        return IntStream.range(0, descriptions.size())
+                .filter(i -> WordIndex.words(descriptions.get(i)).containsAll(wanted))
+                .toArray();
+    }
+}